@@ -0,0 +1,50 @@
+package org.example.movices.benchmark;
+
+import org.example.movices.config.CacheConfig;
+import org.example.movices.config.JwtAuthFilter;
+import org.example.movices.config.JwtTokenProvider;
+import org.example.movices.config.PrincipalCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One authenticated request through {@link JwtAuthFilter}: header parsing, token verification and
+ * principal resolution, either from the principal cache or from the token's claims.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean authoritiesFromClaims;
+
+    private JwtAuthFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtTokenProvider provider = JwtBenchmark.jwtTokenProvider();
+        PrincipalCache principalCache = new PrincipalCache(
+                BenchmarkSupport.userRepository(BenchmarkSupport.user()), new CaffeineCacheManager(CacheConfig.PRINCIPALS));
+        filter = new JwtAuthFilter(provider, principalCache);
+        BenchmarkSupport.setField(filter, "authoritiesFromClaims", authoritiesFromClaims);
+        authorization = "Bearer " + provider.issueToken(BenchmarkSupport.user()).token();
+    }
+
+    @Benchmark
+    public Object authenticate() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/movies");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object principal = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        return principal;
+    }
+}
@@ -0,0 +1,146 @@
+package org.example.movices.benchmark;
+
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.Role;
+import org.example.movices.model.entity.User;
+import org.example.movices.model.entity.enums.RoleType;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.UserRepository;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Fixtures shared by the benchmarks. Repositories are plain in-memory proxies so that the
+ * measurements cover service code only, without Spring or a database in the loop.
+ */
+final class BenchmarkSupport {
+
+    static final String JWT_SECRET = "benchmarkSecretKeyThatIsAtLeast32BytesLong";
+
+    private static final String[] WORDS = {
+            "matrix", "knight", "star", "river", "shadow", "empire", "ghost", "city", "dream", "storm",
+            "garden", "winter", "echo", "island", "hunter", "silver", "mirror", "ocean", "fire", "legend",
+            "night", "road", "crown", "forest", "machine", "signal", "harbor", "desert", "planet", "voice"
+    };
+    private static final String[] GENRES = {"Action", "Drama", "Comedy", "Sci-Fi", "Thriller", "Horror"};
+    private static final String[] DIRECTORS = {"Nolan", "Villeneuve", "Bigelow", "Scott", "Gerwig", "Miyazaki"};
+
+    private BenchmarkSupport() {
+    }
+
+    static List<Movie> movies(int count) {
+        Random random = new Random(42);
+        List<Movie> movies = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            Movie movie = new Movie();
+            movie.setId((long) i);
+            movie.setTitle(capitalize(word(random)) + " of the " + capitalize(word(random)) + " " + i);
+            StringBuilder description = new StringBuilder();
+            for (int w = 0; w < 12; w++) {
+                description.append(word(random)).append(' ');
+            }
+            movie.setDescription(description.toString().trim());
+            movie.setDirector(DIRECTORS[random.nextInt(DIRECTORS.length)]);
+            Genre genre = new Genre();
+            genre.setName(GENRES[random.nextInt(GENRES.length)]);
+            movie.setGenres(new HashSet<>(Set.of(genre)));
+            movie.setReleaseDate(LocalDate.of(1970 + random.nextInt(55), 1, 1));
+            movie.setRating(BigDecimal.valueOf(random.nextInt(100), 1));
+            movie.setThumbnailImage("thumb-" + i + ".jpg");
+            movie.setVideo("video-" + i + ".mp4");
+            movie.normalizeSearchColumns();
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    static User user() {
+        Role role = new Role();
+        role.setName(RoleType.ROLE_USER);
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.org");
+        user.setPassword("unused");
+        user.setRoles(Set.of(role));
+        return user;
+    }
+
+    static MovieRepository movieRepository(List<Movie> movies) {
+        return repository(MovieRepository.class, (method, args) -> switch (method.getName()) {
+            case "findAll" -> movies;
+            // Benchmark movies are all READY
+            case "findByStatus" -> movies;
+            // Same predicate as the JPQL in MovieRepository.searchMovie
+            case "searchMovie" -> {
+                String query = ((String) args[0]).toLowerCase();
+                yield movies.stream()
+                        .filter(movie -> movie.getTitle().toLowerCase().contains(query)
+                                || (movie.getDescription() != null && movie.getDescription().toLowerCase().contains(query)))
+                        .toList();
+            }
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    static UserRepository userRepository(User user) {
+        return repository(UserRepository.class, (method, args) -> {
+            if (method.getName().equals("findByUsername")) {
+                return user.getUsername().equals(args[0]) ? Optional.of(user) : Optional.empty();
+            }
+            throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    static void setField(Object target, String name, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(name);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static void invoke(Object target, String name) {
+        try {
+            Method method = target.getClass().getDeclaredMethod(name);
+            method.setAccessible(true);
+            method.invoke(target);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private interface Handler {
+        Object handle(Method method, Object[] args);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T repository(Class<T> type, Handler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> type.getSimpleName() + "Stub";
+                };
+            }
+            return handler.handle(method, args);
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package org.example.movices.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.config.JwtTokenProvider;
+import org.example.movices.model.entity.User;
+import org.openjdk.jmh.annotations.*;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token issuing and verification. {@code parsePerCall} is the previous behaviour of building a
+ * parser for every request; {@code verifyCached} goes through the provider's verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtBenchmark {
+
+    private JwtTokenProvider provider;
+    private SecretKey key;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        provider = jwtTokenProvider();
+        key = Keys.hmacShaKeyFor(BenchmarkSupport.JWT_SECRET.getBytes(StandardCharsets.UTF_8));
+        user = BenchmarkSupport.user();
+        token = provider.issueToken(user).token();
+    }
+
+    @Benchmark
+    public String issueToken() {
+        return provider.issueToken(user).token();
+    }
+
+    @Benchmark
+    public String verifyCached() {
+        return provider.getClaimFromToken(token, Claims::getSubject);
+    }
+
+    @Benchmark
+    public String parsePerCall() {
+        return Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build()
+                .parseClaimsJws(token)
+                .getBody()
+                .getSubject();
+    }
+
+    static JwtTokenProvider jwtTokenProvider() {
+        JwtTokenProvider provider = new JwtTokenProvider(new SimpleMeterRegistry());
+        BenchmarkSupport.setField(provider, "jwtSecret", BenchmarkSupport.JWT_SECRET);
+        BenchmarkSupport.setField(provider, "jwtExpirationMs", 3_600_000L);
+        BenchmarkSupport.setField(provider, "verifiedCacheMaxSize", 10_000L);
+        BenchmarkSupport.invoke(provider, "initSigningKey");
+        return provider;
+    }
+}
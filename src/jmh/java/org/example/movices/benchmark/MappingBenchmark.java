@@ -0,0 +1,73 @@
+package org.example.movices.benchmark;
+
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Movie to MovieResponse with the reflective ModelMapper the services used to call, the generated
+ * {@link MovieMapper}, and a plain field-by-field copy. The list variants match a full
+ * {@code getAllMovies} response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingBenchmark {
+
+    @Param({"1000"})
+    public int listSize;
+
+    private final ModelMapper modelMapper = new ModelMapper();
+    private final MovieMapper movieMapper = Mappers.getMapper(MovieMapper.class);
+    private Movie movie;
+    private List<Movie> movies;
+
+    @Setup
+    public void setUp() {
+        movies = BenchmarkSupport.movies(listSize);
+        movie = movies.get(0);
+        modelMapper.map(movie, MovieResponse.class);
+    }
+
+    @Benchmark
+    public MovieResponse modelMapper() {
+        return modelMapper.map(movie, MovieResponse.class);
+    }
+
+    @Benchmark
+    public MovieResponse mapStruct() {
+        return movieMapper.toResponse(movie);
+    }
+
+    @Benchmark
+    public MovieResponse handWritten() {
+        MovieResponse response = new MovieResponse();
+        response.setId(movie.getId());
+        response.setTitle(movie.getTitle());
+        response.setDescription(movie.getDescription());
+        response.setDirector(movie.getDirector());
+        response.setReleaseDate(movie.getReleaseDate());
+        response.setRating(movie.getRating());
+        response.setGenres(movie.getGenres().stream().map(Genre::getName).sorted().toList());
+        response.setThumbnailImage(movie.getThumbnailImage());
+        response.setVideo(movie.getVideo());
+        return response;
+    }
+
+    @Benchmark
+    public List<MovieResponse> modelMapperList() {
+        return movies.stream().map(m -> modelMapper.map(m, MovieResponse.class)).toList();
+    }
+
+    @Benchmark
+    public List<MovieResponse> mapStructList() {
+        return movieMapper.toResponses(movies);
+    }
+}
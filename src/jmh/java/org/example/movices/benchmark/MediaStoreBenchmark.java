@@ -0,0 +1,51 @@
+package org.example.movices.benchmark;
+
+import org.example.movices.util.DigestingFileWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Upload naming: every stored file is written once while its SHA-256 content key is computed,
+ * which replaced the old random file name generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MediaStoreBenchmark {
+
+    @Param({"65536", "4194304"})
+    public int size;
+
+    private byte[] payload;
+    private Path directory;
+    private Path target;
+
+    @Setup
+    public void setUp() throws IOException {
+        payload = new byte[size];
+        new Random(42).nextBytes(payload);
+        directory = Files.createTempDirectory("media-benchmark");
+        target = directory.resolve("blob");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() throws IOException {
+        Files.deleteIfExists(target);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public String writeAndDigest() throws IOException {
+        return DigestingFileWriter.write(new ByteArrayInputStream(payload), target, Long.MAX_VALUE).sha256();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.movices.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.search.MovieSearchIndex;
+import org.example.movices.service.impl.MovieServiceImpl;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@code MovieServiceImpl.searchReleven} served from the in-memory index against the ranking it
+ * replaced: every {@code searchMovie} match, tiered with {@code List.contains} checks. The baseline
+ * maps with MapStruct as well, so the difference is the ranking alone; see MappingBenchmark for
+ * the mapper.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SearchBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int movies;
+
+    @Param({"matrix", "knight of the"})
+    public String query;
+
+    private MovieServiceImpl indexed;
+    private MovieRepository repository;
+    private MovieMapper movieMapper;
+
+    @Setup
+    public void setUp() {
+        List<Movie> catalog = BenchmarkSupport.movies(movies);
+        repository = BenchmarkSupport.movieRepository(catalog);
+        movieMapper = Mappers.getMapper(MovieMapper.class);
+
+        MovieSearchIndex index = new MovieSearchIndex(repository, movieMapper);
+        index.rebuild();
+        indexed = service(repository, movieMapper, index);
+    }
+
+    @Benchmark
+    public List<MovieResponse> indexed() {
+        return indexed.searchReleven(query);
+    }
+
+    @Benchmark
+    public List<MovieResponse> baseline() {
+        String searchQuery = query.trim();
+        List<Movie> allMovies = repository.searchMovie(searchQuery);
+
+        List<Movie> weightResult = new ArrayList<>();
+        List<Movie> exactTitleMatches = allMovies.stream()
+                .filter(movie -> movie.getTitle().equalsIgnoreCase(searchQuery))
+                .collect(Collectors.toList());
+        weightResult.addAll(exactTitleMatches);
+
+        List<Movie> titleContainMatch = allMovies.stream()
+                .filter(movie -> movie.getTitle().toLowerCase().contains(searchQuery.toLowerCase()))
+                .filter(movie -> !exactTitleMatches.contains(movie))
+                .collect(Collectors.toList());
+        weightResult.addAll(titleContainMatch);
+
+        List<Movie> otherMatch = allMovies.stream()
+                .filter(movie -> !weightResult.contains(movie))
+                .collect(Collectors.toList());
+        weightResult.addAll(otherMatch);
+
+        return weightResult.stream()
+                .map(movieMapper::toResponse)
+                .collect(Collectors.toList());
+    }
+
+    private MovieServiceImpl service(MovieRepository repository, MovieMapper movieMapper, MovieSearchIndex index) {
+        MovieServiceImpl service = new MovieServiceImpl(repository, movieMapper, new SimpleMeterRegistry(),
+                null, index, null, null, null, null);
+        BenchmarkSupport.setField(service, "maxSearchResults", 50);
+        return service;
+    }
+}
@@ -1,4 +1,57 @@
 package org.example.movices.advice;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Times every call through the movie, user and auth service interfaces as {@code service.calls},
+ * tagged with the interface, method and outcome, and logs calls slower than the configured threshold.
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
 public class LoggingAdvice {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${metrics.service.slow-threshold:PT0.5S}")
+    private Duration slowThreshold;
+
+    @Around("execution(* org.example.movices.service.MovieService.*(..))"
+            + " || execution(* org.example.movices.service.UserService.*(..))"
+            + " || execution(* org.example.movices.service.AuthService.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        String outcome = "success";
+        long start = System.nanoTime();
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            outcome = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            Timer.builder("service.calls")
+                    .tag("service", service)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(Duration.ofNanos(elapsed));
+            if (elapsed > slowThreshold.toNanos()) {
+                log.warn("Slow service call {}.{} took {} ms ({})", service, method, elapsed / 1_000_000, outcome);
+            }
+        }
+    }
 }
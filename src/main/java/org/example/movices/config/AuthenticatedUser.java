@@ -0,0 +1,31 @@
+package org.example.movices.config;
+
+import org.example.movices.model.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Detached, immutable view of a user used as the security principal, so authenticated requests
+ * never hold on to a managed {@link User} entity.
+ */
+public record AuthenticatedUser(Long id, String username, String email, List<GrantedAuthority> authorities) {
+
+    public static AuthenticatedUser from(User user) {
+        List<GrantedAuthority> authorities = user.getRoles().stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.getName().name()))
+                .toList();
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getEmail(), authorities);
+    }
+
+    public static AuthenticatedUser fromClaims(Long id, String username, String email, String roles) {
+        List<GrantedAuthority> authorities = roles == null ? List.of() : Arrays.stream(roles.split(","))
+                .map(String::trim)
+                .filter(role -> !role.isEmpty())
+                .<GrantedAuthority>map(SimpleGrantedAuthority::new)
+                .toList();
+        return new AuthenticatedUser(id, username, email, authorities);
+    }
+}
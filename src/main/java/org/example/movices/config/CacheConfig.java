@@ -0,0 +1,69 @@
+package org.example.movices.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MOVIES = "movies";
+    public static final String MOVIE_LIST = "movieList";
+    public static final String PRINCIPALS = "principals";
+    public static final String CATALOG_SNAPSHOTS = "catalogSnapshots";
+
+    @Value("${cache.movies.max-size:10000}")
+    private long moviesMaxSize;
+
+    @Value("${cache.movies.ttl:PT10M}")
+    private Duration moviesTtl;
+
+    @Value("${cache.movie-list.ttl:PT5M}")
+    private Duration movieListTtl;
+
+    @Value("${cache.principals.max-size:10000}")
+    private long principalsMaxSize;
+
+    @Value("${cache.principals.ttl:PT2M}")
+    private Duration principalsTtl;
+
+    @Value("${cache.catalog-snapshots.max-size:64MB}")
+    private DataSize catalogSnapshotsMaxSize;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(MOVIES, Caffeine.newBuilder()
+                .maximumSize(moviesMaxSize)
+                .expireAfterWrite(moviesTtl)
+                .recordStats()
+                .build());
+        // Holds a single entry: the immutable snapshot of the full listing
+        cacheManager.registerCustomCache(MOVIE_LIST, Caffeine.newBuilder()
+                .maximumSize(1)
+                .expireAfterWrite(movieListTtl)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(PRINCIPALS, Caffeine.newBuilder()
+                .maximumSize(principalsMaxSize)
+                .expireAfterWrite(principalsTtl)
+                .recordStats()
+                .build());
+        // Bounded by bytes: a full-catalog snapshot can be far larger than a search result
+        cacheManager.registerCustomCache(CATALOG_SNAPSHOTS, Caffeine.newBuilder()
+                .maximumWeight(catalogSnapshotsMaxSize.toBytes())
+                .weigher((Object key, Object value) -> ((CatalogSnapshots.Snapshot) value).size())
+                .recordStats()
+                .build());
+        return cacheManager;
+    }
+}
@@ -0,0 +1,91 @@
+package org.example.movices.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Supplier;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Serialized JSON of the hottest catalog responses, stored together with a gzip copy compressed
+ * once at the highest level. Entries are keyed by catalog version, so a bump makes them unreachable
+ * and the next request for each one rebuilds it; every other request is answered from the stored
+ * bytes without serializing or compressing anything.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogSnapshots {
+
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+
+    // Whether snapshots carry a gzip copy at all; fixed by configuration, so the ETag can rely on it
+    @Value("${server.compression.enabled:false}")
+    private boolean compressionEnabled;
+
+    // Same threshold as server.compression: below it gzip saves too little to be worth a header
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize minCompressSize = DataSize.ofKilobytes(2);
+
+    // gzip is null when compression is off or the JSON is below the compression threshold
+    public record Snapshot(byte[] json, byte[] gzip) {
+        public int size() {
+            return json.length + (gzip == null ? 0 : gzip.length);
+        }
+    }
+
+    private record Key(long version, String name) {
+    }
+
+    public boolean gzipEnabled() {
+        return compressionEnabled;
+    }
+
+    public Snapshot get(CatalogVersion.Stamp stamp, String name, Supplier<?> body) {
+        Cache cache = cacheManager.getCache(CacheConfig.CATALOG_SNAPSHOTS);
+        if (cache == null) {
+            return build(body.get());
+        }
+        try {
+            return cache.get(new Key(stamp.version(), name), () -> build(body.get()));
+        } catch (Cache.ValueRetrievalException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Snapshot build(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            return new Snapshot(json, !compressionEnabled || json.length < minCompressSize.toBytes() ? null : gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize catalog snapshot", e);
+        }
+    }
+
+    private byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
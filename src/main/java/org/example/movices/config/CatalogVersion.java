@@ -0,0 +1,70 @@
+package org.example.movices.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Catalog-wide version stamp for conditional GETs on listings and searches. Bumped after every
+ * committed create, update or delete. The stamp is per process and restarts with a new boot id,
+ * so clients revalidate once after a deploy instead of trusting a stale tag.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogVersion {
+
+    private final CacheManager cacheManager;
+
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicReference<Stamp> current = new AtomicReference<>(new Stamp(0, Instant.now()));
+
+    public record Stamp(long version, Instant lastModified) {
+    }
+
+    public Stamp current() {
+        return current.get();
+    }
+
+    public String etag(Stamp stamp) {
+        return "\"catalog-" + bootId + "-" + stamp.version() + "\"";
+    }
+
+    // Tag for an encoded representation, e.g. gzip, which must not share the identity tag
+    public String etag(Stamp stamp, String encoding) {
+        return "\"catalog-" + bootId + "-" + stamp.version() + "-" + encoding + "\"";
+    }
+
+    public void bump() {
+        // Inside a transaction the change is not visible yet; a reader loading now would cache the old rows under the new version
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    advance();
+                }
+            });
+        } else {
+            advance();
+        }
+    }
+
+    private void advance() {
+        // Listings are keyed by version, so these only free memory; a load still running puts under its old key
+        Cache listing = cacheManager.getCache(CacheConfig.MOVIE_LIST);
+        if (listing != null) {
+            listing.clear();
+        }
+        Cache snapshots = cacheManager.getCache(CacheConfig.CATALOG_SNAPSHOTS);
+        if (snapshots != null) {
+            snapshots.clear();
+        }
+        Instant now = Instant.now();
+        current.updateAndGet(stamp -> new Stamp(stamp.version() + 1, now));
+    }
+}
@@ -1,32 +1,55 @@
 package org.example.movices.config;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
 import org.example.movices.model.entity.User;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.util.Date;
-import java.util.function.Function;
-import java.util.stream.Collectors;
-
 import jakarta.annotation.PostConstruct;
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class JwtTokenProvider {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String jwtSecret;
 
     @Value("${jwt.expiration.ms}")
     private long jwtExpirationMs;
 
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
     private SecretKey signingKey;
+    private JwtParser parser;
+    private Cache<String, VerifiedToken> verifiedTokens;
+    private Timer verifyTimer;
+
+    public record IssuedToken(String token, long expiresAt) {
+    }
+
+    // Keyed by the signature segment; the full token is kept and compared on every hit
+    private record VerifiedToken(String token, Claims claims, long expiresAt) {
+    }
 
     @PostConstruct
     private void initSigningKey() {
@@ -39,9 +62,39 @@ public class JwtTokenProvider {
         // If your jwt.secret is Base64-encoded, use this instead:
         // byte[] keyBytes = io.jsonwebtoken.io.Decoders.BASE64.decode(jwtSecret);
         // this.signingKey = Keys.hmacShaKeyFor(keyBytes);
+
+        // JwtParser is immutable and thread-safe
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+                        return TimeUnit.MILLISECONDS.toNanos(Math.max(0, value.expiresAt() - System.currentTimeMillis()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens");
+        this.verifyTimer = Timer.builder("jwt.verify")
+                .description("Signature verification and claims decoding of bearer tokens on cache misses")
+                .register(meterRegistry);
     }
 
-    public String generateToken(User user) {
+    public IssuedToken issueToken(User user) {
         final Date now = new Date();
         final Date expiry = new Date(now.getTime() + jwtExpirationMs);
 
@@ -50,7 +103,7 @@ public class JwtTokenProvider {
                         .map(r -> r.getName().name())
                         .collect(Collectors.joining(","));
 
-        return Jwts.builder()
+        String token = Jwts.builder()
                 .setSubject(user.getUsername())
                 .claim("uid", user.getId())
                 .claim("email", user.getEmail())
@@ -59,6 +112,7 @@ public class JwtTokenProvider {
                 .setExpiration(expiry)
                 .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
+        return new IssuedToken(token, expiry.getTime());
     }
 
     public Date getExpirationDateFromToken(String token) {
@@ -71,10 +125,17 @@ public class JwtTokenProvider {
     }
 
     private Claims getAllClaimsFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        String signature = token.substring(token.lastIndexOf('.') + 1);
+        VerifiedToken cached = verifiedTokens.getIfPresent(signature);
+        if (cached != null && cached.token().equals(token) && cached.expiresAt() > System.currentTimeMillis()) {
+            return cached.claims();
+        }
+
+        // Invalid and expired tokens throw here and are never cached
+        Claims claims = verifyTimer.record(() -> parser.parseClaimsJws(token).getBody());
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(signature, new VerifiedToken(token, claims, claims.getExpiration().getTime()));
+        }
+        return claims;
     }
-}
\ No newline at end of file
+}
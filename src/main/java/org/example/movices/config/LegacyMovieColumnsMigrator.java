@@ -0,0 +1,231 @@
+package org.example.movices.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.search.MovieSearchIndex;
+import org.example.movices.search.TitleSuggester;
+import org.example.movices.service.GenreService;
+import org.example.movices.service.LeaderboardService;
+import org.example.movices.util.DateUtils;
+import org.example.movices.util.MovieFieldParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Moves the free-text release_date, rating and genre columns of databases created before the typed
+ * schema into released_on, rating_value and movie_genres. Hibernate's schema update adds the new
+ * columns but never drops old ones, so both sets coexist while this runs in the background after
+ * startup, in batches by id. A legacy value is cleared once it has been copied; values that cannot
+ * be parsed are left in place and logged, so nothing is lost and a later run picks them up after a
+ * manual fix. Typed values written by the application in the meantime always win. When
+ * {@code movies.schema.drop-legacy-columns} is set and nothing is left over, the old columns are
+ * dropped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LegacyMovieColumnsMigrator {
+
+    private static final int BATCH_SIZE = 500;
+    private static final List<String> LEGACY_INDEXES = List.of("idx_movies_release_date", "idx_movies_rating", "idx_movies_genre_title");
+    private static final List<String> LEGACY_COLUMNS = List.of("release_date", "rating", "genre");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final GenreService genreService;
+    private final CacheManager cacheManager;
+    private final CatalogVersion catalogVersion;
+    private final MovieSearchIndex movieSearchIndex;
+    private final TitleSuggester titleSuggester;
+    private final LeaderboardService leaderboardService;
+
+    @Value("${movies.schema.legacy-migration.enabled:true}")
+    private boolean enabled;
+
+    @Value("${movies.schema.drop-legacy-columns:false}")
+    private boolean dropLegacyColumns;
+
+    public record Result(long migrated, long unparseable) {
+    }
+
+    private record LegacyRow(long id, String releaseDate, String rating, String genre) {
+    }
+
+    // Rows from before upload jobs have no status. Runs ahead of the other startup listeners, whose
+    // rebuilds read READY movies only, and regardless of the column migration switch.
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillStatus() {
+        int backfilled = jdbcTemplate.update("UPDATE movies SET status = 'READY' WHERE status IS NULL");
+        if (backfilled > 0) {
+            log.info("Marked {} movies from before upload jobs as READY", backfilled);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !hasLegacyColumns()) {
+            return;
+        }
+        Thread worker = new Thread(() -> {
+            try {
+                migrate();
+            } catch (RuntimeException e) {
+                log.error("Legacy movie column migration stopped; it resumes on the next start", e);
+            }
+        }, "legacy-movie-migration");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public boolean hasLegacyColumns() {
+        try {
+            jdbcTemplate.queryForList("SELECT release_date, rating, genre FROM movies WHERE 1 = 0");
+            return true;
+        } catch (DataAccessException e) {
+            return false;
+        }
+    }
+
+    public Result migrate() {
+        long start = System.nanoTime();
+        long migrated = 0;
+        long unparseable = 0;
+        long lastId = 0;
+        while (true) {
+            List<LegacyRow> rows = jdbcTemplate.query(
+                    "SELECT id, release_date, rating, genre FROM movies WHERE id > ? "
+                            + "AND (release_date IS NOT NULL OR rating IS NOT NULL OR genre IS NOT NULL) ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> new LegacyRow(rs.getLong("id"), rs.getString("release_date"),
+                            rs.getString("rating"), rs.getString("genre")),
+                    lastId);
+            if (rows.isEmpty()) {
+                break;
+            }
+            unparseable += migrateBatch(rows);
+            migrated += rows.size();
+            lastId = rows.get(rows.size() - 1).id();
+        }
+
+        if (migrated > 0) {
+            // Rows changed underneath the caches and the in-memory indexes
+            catalogVersion.bump();
+            movieSearchIndex.rebuild();
+            titleSuggester.rebuild();
+            leaderboardService.rebuild();
+            log.info("Migrated legacy columns of {} movies in {} ms ({} values could not be parsed)",
+                    migrated, (System.nanoTime() - start) / 1_000_000, unparseable);
+        }
+        if (unparseable == 0 && dropLegacyColumns) {
+            dropLegacyColumns();
+        }
+        return new Result(migrated, unparseable);
+    }
+
+    private long migrateBatch(List<LegacyRow> rows) {
+        long unparseable = 0;
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> updates = new ArrayList<>(rows.size());
+        Map<Long, Set<String>> genreNames = new HashMap<>();
+        for (LegacyRow row : rows) {
+            LocalDate releaseDate = null;
+            String legacyReleaseDate = null;
+            try {
+                releaseDate = DateUtils.parseReleaseDate(row.releaseDate());
+            } catch (IllegalArgumentException e) {
+                legacyReleaseDate = row.releaseDate();
+                unparseable++;
+                log.warn("Movie {}: keeping unparseable release date '{}'", row.id(), row.releaseDate());
+            }
+            BigDecimal rating = null;
+            String legacyRating = null;
+            try {
+                rating = MovieFieldParser.parseRating(row.rating());
+            } catch (IllegalArgumentException e) {
+                legacyRating = row.rating();
+                unparseable++;
+                log.warn("Movie {}: keeping unparseable rating '{}'", row.id(), row.rating());
+            }
+            String legacyGenre = null;
+            try {
+                genreNames.put(row.id(), MovieFieldParser.parseGenres(row.genre()));
+            } catch (IllegalArgumentException e) {
+                legacyGenre = row.genre();
+                unparseable++;
+                log.warn("Movie {}: keeping unparseable genre '{}'", row.id(), row.genre());
+            }
+            updates.add(new Object[]{releaseDate, rating, legacyReleaseDate, legacyRating, legacyGenre, now, row.id()});
+        }
+
+        Set<String> allNames = new HashSet<>();
+        genreNames.values().forEach(allNames::addAll);
+        Map<String, Genre> genres = new HashMap<>();
+        genreService.resolve(allNames).forEach(genre -> genres.put(genre.getName().toLowerCase(Locale.ROOT), genre));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Version and updated_at move too, so ETags handed out for these rows stop matching
+            jdbcTemplate.batchUpdate("UPDATE movies SET released_on = COALESCE(released_on, ?), "
+                    + "rating_value = COALESCE(rating_value, ?), release_date = ?, rating = ?, genre = ?, "
+                    + "version = version + 1, updated_at = ? WHERE id = ?", updates);
+            linkGenres(genreNames, genres);
+        });
+
+        Cache movies = cacheManager.getCache(CacheConfig.MOVIES);
+        if (movies != null) {
+            rows.forEach(row -> movies.evict(row.id()));
+        }
+        return unparseable;
+    }
+
+    // Movies that already have genres (set through the API since the upgrade) keep them
+    private void linkGenres(Map<Long, Set<String>> genreNames, Map<String, Genre> genres) {
+        if (genreNames.isEmpty()) {
+            return;
+        }
+        Set<Long> linked = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT DISTINCT movie_id FROM movie_genres WHERE movie_id IN (:ids)",
+                new MapSqlParameterSource("ids", genreNames.keySet()), Long.class));
+        List<Object[]> links = new ArrayList<>();
+        genreNames.forEach((movieId, names) -> {
+            if (!linked.contains(movieId)) {
+                names.forEach(name -> links.add(new Object[]{movieId, genres.get(name.toLowerCase(Locale.ROOT)).getId()}));
+            }
+        });
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO movie_genres (movie_id, genre_id) VALUES (?, ?)", links);
+        }
+    }
+
+    private void dropLegacyColumns() {
+        for (String index : LEGACY_INDEXES) {
+            try {
+                jdbcTemplate.execute("DROP INDEX " + index + " ON movies");
+            } catch (DataAccessException e) {
+                log.debug("Legacy index {} not dropped: {}", index, e.getMostSpecificCause().getMessage());
+            }
+        }
+        for (String column : LEGACY_COLUMNS) {
+            jdbcTemplate.execute("ALTER TABLE movies DROP COLUMN " + column);
+        }
+        log.info("Dropped legacy movie columns {}", LEGACY_COLUMNS);
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.movices.config;
+
+import lombok.RequiredArgsConstructor;
+import org.example.movices.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Username to principal lookups for {@link JwtAuthFilter}. Only users that exist are cached, so a
+ * later sign-up under a previously unknown name is never shadowed by a cached miss.
+ */
+@Component
+@RequiredArgsConstructor
+public class PrincipalCache {
+
+    private final UserRepository userRepository;
+    private final CacheManager cacheManager;
+
+    public AuthenticatedUser get(String username) {
+        Cache cache = cache();
+        AuthenticatedUser cached = cache.get(username, AuthenticatedUser.class);
+        if (cached != null) {
+            return cached;
+        }
+        AuthenticatedUser loaded = userRepository.findByUsername(username)
+                .map(AuthenticatedUser::from)
+                .orElse(null);
+        if (loaded != null) {
+            cache.put(username, loaded);
+        }
+        return loaded;
+    }
+
+    public void evict(String username) {
+        if (username != null) {
+            cache().evict(username);
+        }
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CacheConfig.PRINCIPALS);
+    }
+}
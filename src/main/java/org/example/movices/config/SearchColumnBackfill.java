@@ -0,0 +1,47 @@
+package org.example.movices.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.search.TextAnalyzer;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Fills the normalized search columns for rows written before they existed
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SearchColumnBackfill implements CommandLineRunner {
+
+    private static final int BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(String... args) {
+        int total = 0;
+        while (true) {
+            List<Object[]> batch = jdbcTemplate.query(
+                    "SELECT id, title, description FROM movies WHERE title_normalized IS NULL ORDER BY id LIMIT " + BATCH_SIZE,
+                    (rs, rowNum) -> {
+                        String description = rs.getString("description");
+                        return new Object[]{
+                                TextAnalyzer.normalize(rs.getString("title")),
+                                description == null ? null : TextAnalyzer.normalize(description),
+                                rs.getLong("id")
+                        };
+                    });
+            if (batch.isEmpty()) {
+                break;
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE movies SET title_normalized = ?, description_normalized = ? WHERE id = ?", batch);
+            total += batch.size();
+        }
+        if (total > 0) {
+            log.info("Backfilled normalized search columns for {} movies", total);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.example.movices.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Numbers view flushes so that an in-memory rebuild can tell which flushes its read already
+ * includes. A flush takes the next number inside its own transaction, which keeps the row locked
+ * until it commits; a rebuild locks the same row before reading, so no flush can commit between
+ * the number it sees and the rows it reads.
+ */
+@Component
+@RequiredArgsConstructor
+public class ViewFlushSequence {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public record Stamped<T>(long sequence, T value) {
+    }
+
+    // Must run inside the flush transaction
+    public long next() {
+        if (jdbcTemplate.update("UPDATE view_flush_state SET last_sequence = last_sequence + 1 WHERE id = 1") == 0) {
+            jdbcTemplate.update("INSERT INTO view_flush_state (id, last_sequence) VALUES (1, 1)");
+        }
+        return jdbcTemplate.queryForObject("SELECT last_sequence FROM view_flush_state WHERE id = 1", Long.class);
+    }
+
+    public <T> Stamped<T> read(Supplier<T> read) {
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> new Stamped<>(lock(), read.get()));
+            } catch (DuplicateKeyException e) {
+                // The first flush ever created the row meanwhile; lock that one instead
+            }
+        }
+    }
+
+    private long lock() {
+        List<Long> current = jdbcTemplate.queryForList(
+                "SELECT last_sequence FROM view_flush_state WHERE id = 1 FOR UPDATE", Long.class);
+        if (!current.isEmpty()) {
+            return current.get(0);
+        }
+        jdbcTemplate.update("INSERT INTO view_flush_state (id, last_sequence) VALUES (1, 0)");
+        return 0;
+    }
+}
@@ -1,34 +1,79 @@
 package org.example.movices.controller;
 
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.example.movices.config.AuthenticatedUser;
+import org.example.movices.config.CatalogSnapshots;
+import org.example.movices.config.CatalogVersion;
+import org.example.movices.dto.request.MoviePageRequest;
 import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.ContinueWatchingResponse;
+import org.example.movices.dto.response.MovieImportResponse;
+import org.example.movices.dto.response.MoviePageResponse;
 import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.MovieSuggestion;
+import org.example.movices.dto.response.PopularMovieResponse;
+import org.example.movices.dto.response.UploadJobResponse;
 import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.exception.BadRequestException;
+import org.example.movices.model.entity.enums.ThumbnailVariant;
+import org.example.movices.service.LeaderboardService;
+import org.example.movices.service.MediaStreamingService;
+import org.example.movices.service.MovieExportService;
+import org.example.movices.service.MovieImportService;
 import org.example.movices.service.MovieService;
+import org.example.movices.service.ThumbnailService;
+import org.example.movices.service.UploadJobService;
+import org.example.movices.service.ViewTrackingService;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
+import java.net.URI;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/movies")
 @RequiredArgsConstructor
 public class MovieController {
 
+    private static final int JOB_POLL_SECONDS = 2;
+
     private final MovieService movieService;
+    private final MediaStreamingService mediaStreamingService;
+    private final MovieExportService movieExportService;
+    private final ThumbnailService thumbnailService;
+    private final MovieImportService movieImportService;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshots catalogSnapshots;
+    private final ViewTrackingService viewTrackingService;
+    private final LeaderboardService leaderboardService;
+    private final UploadJobService uploadJobService;
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
-    public ResponseEntity<MovieResponse> createMovie(
+    public ResponseEntity<UploadJobResponse> createMovie(
             @RequestParam("title") String title,
             @RequestParam(value = "description", required = false) String description,
             @RequestParam(value = "director", required = false) String director,
@@ -47,22 +92,104 @@ public class MovieController {
         movieRequest.setRating(rating);
         movieRequest.setGenre(genre);
 
-        MovieResponse movieResponse = movieService.createMovieWithFile(movieRequest, video, photo);
+        // Accepted as PENDING; the media are checked and stored by an upload job
+        UploadJobResponse job = uploadJobService.submit(movieRequest, video, photo);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/movies/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @GetMapping("/jobs/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<UploadJobResponse> getUploadJob(@PathVariable Long id) {
+        UploadJobResponse job = uploadJobService.getJob(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!job.getStatus().isFinished()) {
+            response.header(HttpHeaders.RETRY_AFTER, String.valueOf(JOB_POLL_SECONDS));
+        }
+        return response.body(job);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/upload", consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "video/*"})
+    public ResponseEntity<MovieResponse> uploadMovie(
+            @RequestParam("title") String title,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "director", required = false) String director,
+            @RequestParam(value = "releaseDate", required = false) String releaseDate,
+            @RequestParam(value = "rating", required = false) String rating,
+            @RequestParam(value = "genre", required = false) String genre,
+            @RequestHeader(value = "X-File-Name", required = false) String fileName,
+            HttpServletRequest request) throws IOException {
+
+        MovieRequest movieRequest = new MovieRequest();
+        movieRequest.setTitle(title);
+        movieRequest.setDescription(description);
+        movieRequest.setDirector(director);
+        movieRequest.setReleaseDate(releaseDate);
+        movieRequest.setRating(rating);
+        movieRequest.setGenre(genre);
+
+        // Body is read straight off the socket; nothing is spooled by the multipart resolver
+        MovieResponse movieResponse = movieService.createMovieFromStream(
+                movieRequest, request.getInputStream(), fileName, request.getContentType(), request.getContentLengthLong());
         return new ResponseEntity<>(movieResponse, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<MovieImportResponse> importMovies(HttpServletRequest request) throws IOException {
+        MovieImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? MovieImportService.Format.CSV
+                : MovieImportService.Format.NDJSON;
+        return ResponseEntity.ok(movieImportService.importMovies(format, request.getInputStream()));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<MovieResponse> getMovieById(@PathVariable Long id) {
+    public ResponseEntity<MovieResponse> getMovieById(@PathVariable Long id, WebRequest request) {
+        // Served from the movie cache, so a revalidation hit costs neither a query nor a mapping
         MovieResponse movie = movieService.getMovieById(id);
-        return ResponseEntity.ok(movie);
+        String etag = "\"" + movie.getId() + "-" + movie.getVersion() + "\"";
+        if (request.checkNotModified(etag, toMillis(movie.getUpdatedAt()))) {
+            return null;
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache()).body(movie);
     }
 
     @GetMapping
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<List<MovieResponse>> getAllMovies() {
-        List<MovieResponse> movies = movieService.getAllMovies();
-        return ResponseEntity.ok(movies);
+    public ResponseEntity<byte[]> getAllMovies(WebRequest request) {
+        return catalogSnapshot(request, "all", movieService::getAllMovies);
+    }
+
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<MoviePageResponse> getMoviePage(
+            @RequestParam(value = "sort", defaultValue = "title") String sort,
+            @RequestParam(value = "direction", defaultValue = "asc") String direction,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "genre", required = false) String genre,
+            @RequestParam(value = "director", required = false) String director,
+            @RequestParam(value = "minRating", required = false) Double minRating,
+            @RequestParam(value = "maxRating", required = false) Double maxRating,
+            @RequestParam(value = "fromYear", required = false) Integer fromYear,
+            @RequestParam(value = "toYear", required = false) Integer toYear) {
+
+        MoviePageRequest pageRequest = new MoviePageRequest();
+        pageRequest.setSort(sort);
+        pageRequest.setDirection(direction);
+        pageRequest.setCursor(cursor);
+        pageRequest.setSize(size);
+        pageRequest.setGenre(genre);
+        pageRequest.setDirector(director);
+        pageRequest.setMinRating(minRating);
+        pageRequest.setMaxRating(maxRating);
+        pageRequest.setFromYear(fromYear);
+        pageRequest.setToYear(toYear);
+
+        return ResponseEntity.ok(movieService.getMoviePage(pageRequest));
     }
 
     @PatchMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -100,45 +227,213 @@ public class MovieController {
 
     @GetMapping("/{id}/download")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
-    public ResponseEntity<Resource> downloadMovie(@PathVariable Long id) {
-        Resource resource = movieService.downloadMovie(id);
+    public void downloadMovie(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamResource(id, true, user, request, response);
+    }
 
-        String contentType = "application/octet-stream";
-        try {
-            contentType = Files.probeContentType(Path.of(resource.getURI()));
-            if (contentType == null) {
-                contentType = "application/octet-stream";
+    @GetMapping("/{id}/stream")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public void streamMovie(@PathVariable Long id, @AuthenticationPrincipal AuthenticatedUser user,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        streamResource(id, false, user, request, response);
+    }
+
+    @GetMapping("/popular")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<PopularMovieResponse>> popularMovies(
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(viewTrackingService.popular(limit));
+    }
 
+    @GetMapping("/top-rated")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<MovieResponse>> topRatedMovies(
+            @RequestParam(value = "genre", required = false) String genre,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.topRated(genre, limit));
+    }
+
+    @GetMapping("/trending")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<PopularMovieResponse>> trendingMovies(
+            @RequestParam(value = "genre", required = false) String genre,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(leaderboardService.trending(genre, limit));
+    }
+
+    @GetMapping("/continue-watching")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<List<ContinueWatchingResponse>> continueWatching(
+            @AuthenticationPrincipal AuthenticatedUser user,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return ResponseEntity.ok(viewTrackingService.continueWatching(user.id(), limit));
+    }
+
+    private static long toMillis(Instant instant) {
+        return instant == null ? -1 : instant.toEpochMilli();
+    }
+
+    // Serves a stored JSON snapshot of the current catalog version, gzip-encoded when the client accepts it
+    private ResponseEntity<byte[]> catalogSnapshot(WebRequest request, String name, Supplier<?> body) {
+        CatalogVersion.Stamp stamp = catalogVersion.current();
+        // The tag depends only on the stamp and configuration, so a revalidation never builds the snapshot
+        boolean gzip = catalogSnapshots.gzipEnabled() && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        String etag = gzip ? catalogVersion.etag(stamp, "gzip") : catalogVersion.etag(stamp);
+        if (request.checkNotModified(etag, toMillis(stamp.lastModified()))) {
+            return null;
+        }
+        CatalogSnapshots.Snapshot snapshot = catalogSnapshots.get(stamp, name, body);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // Below the size threshold the gzip variant is sent unencoded under its own tag
+        if (gzip && snapshot.gzip() != null) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    // An explicit gzip entry wins over "*"; q=0 refuses the coding
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.split(";");
+            String coding = params[0].trim();
+            double quality = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        quality = Double.parseDouble(param.substring(2));
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equalsIgnoreCase("gzip")) {
+                return quality > 0;
+            }
+            if (coding.equals("*")) {
+                wildcard = quality > 0;
             }
-        } catch (IOException e) {
-            // ignore
         }
+        return wildcard;
+    }
+
+    private void streamResource(Long id, boolean attachment, AuthenticatedUser user,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Resource resource = movieService.downloadMovie(id);
         String fileName = resource.getFilename();
         if (fileName == null) {
             fileName = "Movie " + id;
         }
+        MediaStreamingService.ServedRange served =
+                mediaStreamingService.stream(resource.getFile().toPath(), fileName, attachment, request, response);
+        viewTrackingService.recordPlayback(user == null ? null : user.id(), id, served);
+    }
 
+    @GetMapping("/{id}/thumbnail")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<Resource> thumbnail(
+            @PathVariable Long id,
+            @RequestParam(value = "size", required = false) String size,
+            @RequestParam(value = "width", required = false) Integer width) {
+        String key = movieService.getMovieById(id).getThumbnailImage();
+        if (key == null || key.isEmpty()) {
+            throw new ResourceNotFoundException("No thumbnail associated with this movie");
+        }
+        ThumbnailVariant variant;
+        if (size != null) {
+            try {
+                variant = ThumbnailVariant.valueOf(size.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException("Unsupported thumbnail size: " + size);
+            }
+        } else {
+            variant = width == null ? ThumbnailVariant.MEDIUM : ThumbnailVariant.bestFit(width);
+        }
+
+        // Variants are derived from a content-addressed key and never change
+        Optional<Path> path = thumbnailService.find(key, variant);
+        if (path.isPresent()) {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                    .eTag(key + "-" + variant.name().toLowerCase())
+                    .contentType(MediaType.IMAGE_JPEG)
+                    .body(new FileSystemResource(path.get()));
+        }
+
+        // Not generated yet: serve the original briefly and make sure the variants are on their way
+        thumbnailService.enqueue(key);
+        Resource original = thumbnailService.loadOriginal(key);
         return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(contentType))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
-                .body(resource);
+                .cacheControl(CacheControl.maxAge(Duration.ofMinutes(1)))
+                .contentType(MediaTypeFactory.getMediaType(original).orElse(MediaType.APPLICATION_OCTET_STREAM))
+                .body(original);
     }
 
     @GetMapping("/search")
     @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
-    public ResponseEntity<List<MovieResponse>> searchMovie(
+    public ResponseEntity<byte[]> searchMovie(
             @RequestParam(value = "query") String query,
-            @RequestParam(value = "exact", defaultValue = "false") boolean exactMatch
+            @RequestParam(value = "exact", defaultValue = "false") boolean exactMatch,
+            WebRequest request
             ) {
-        List<MovieResponse> movies = movieService.searchMovie(query, exactMatch);
-        return ResponseEntity.ok(movies);
+        // The result only depends on the URL and the catalog, so the catalog stamp validates it
+        return catalogSnapshot(request, "search:" + exactMatch + ":" + query, () -> movieService.searchMovie(query, exactMatch));
     }
 
     @GetMapping("/search/releven")
     public ResponseEntity<List<MovieResponse>> searchRelevenMovie(
-            @RequestParam("q") String query
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size
     ){
-        List<MovieResponse> movies = movieService.searchMovie(query);
+        List<MovieResponse> movies = movieService.searchReleven(query, page, size);
         return ResponseEntity.ok(movies);
     }
+
+    @GetMapping("/suggest")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('USER')")
+    public ResponseEntity<List<MovieSuggestion>> suggestTitles(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit
+    ) {
+        return ResponseEntity.ok(movieService.suggestTitles(prefix, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public void exportMovies(
+            @RequestParam(value = "format", defaultValue = "ndjson") String format,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant since,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        MovieExportService.Format exportFormat;
+        try {
+            exportFormat = MovieExportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported export format: " + format);
+        }
+
+        response.setContentType(exportFormat == MovieExportService.Format.NDJSON ? "application/x-ndjson" : MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            // Sync flush so each batch reaches the client instead of waiting in the deflater
+            try (GZIPOutputStream gzip = new GZIPOutputStream(response.getOutputStream(), 8192, true)) {
+                movieExportService.export(exportFormat, since, gzip);
+            }
+        } else {
+            OutputStream out = response.getOutputStream();
+            movieExportService.export(exportFormat, since, out);
+            out.flush();
+        }
+    }
 }
@@ -0,0 +1,77 @@
+package org.example.movices.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.example.movices.dto.request.UploadSessionRequest;
+import org.example.movices.dto.response.UploadJobResponse;
+import org.example.movices.dto.response.UploadSessionResponse;
+import org.example.movices.service.ChunkedUploadService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/movies/uploads")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class MovieUploadController {
+
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+
+    private final ChunkedUploadService chunkedUploadService;
+
+    @PostMapping
+    public ResponseEntity<UploadSessionResponse> createSession(@RequestBody UploadSessionRequest request) {
+        UploadSessionResponse session = chunkedUploadService.createSession(request);
+        return ResponseEntity.created(URI.create("/api/movies/uploads/" + session.getId()))
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .body(session);
+    }
+
+    @RequestMapping(value = "/{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> getOffset(@PathVariable String id) {
+        UploadSessionResponse session = chunkedUploadService.getSession(id);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .header(UPLOAD_LENGTH, String.valueOf(session.getLength()))
+                .build();
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<UploadSessionResponse> getSession(@PathVariable String id) {
+        return ResponseEntity.ok(chunkedUploadService.getSession(id));
+    }
+
+    @RequestMapping(value = "/{id}", method = {RequestMethod.PATCH, RequestMethod.PUT},
+            consumes = {MediaType.APPLICATION_OCTET_STREAM_VALUE, "application/offset+octet-stream"})
+    public ResponseEntity<UploadSessionResponse> writeChunk(
+            @PathVariable String id,
+            @RequestHeader(UPLOAD_OFFSET) long offset,
+            HttpServletRequest request) throws IOException {
+        UploadSessionResponse session = chunkedUploadService.writeChunk(
+                id, offset, request.getInputStream(), request.getContentLengthLong());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, String.valueOf(session.getOffset()))
+                .body(session);
+    }
+
+    @PostMapping("/{id}/finalize")
+    public ResponseEntity<UploadJobResponse> finalizeUpload(@PathVariable String id) {
+        UploadJobResponse job = chunkedUploadService.finalizeUpload(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/movies/jobs/" + job.getId()))
+                .body(job);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String id) {
+        chunkedUploadService.abortUpload(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.movices.dto.request;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class MovieImportRow {
+    private String title;
+    private String description;
+    private String director;
+    private String releaseDate;
+    private String rating;
+    private String genre;
+    // Keys of media already in the store
+    private String thumbnailImage;
+    private String video;
+}
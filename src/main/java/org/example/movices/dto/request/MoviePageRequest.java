@@ -0,0 +1,18 @@
+package org.example.movices.dto.request;
+
+import lombok.Data;
+
+@Data
+public class MoviePageRequest {
+    private String sort;
+    private String direction;
+    private String cursor;
+    private Integer size;
+    private String genre;
+    private String director;
+    private Double minRating;
+    private Double maxRating;
+    // Inclusive release-year range
+    private Integer fromYear;
+    private Integer toYear;
+}
@@ -0,0 +1,16 @@
+package org.example.movices.dto.request;
+
+import lombok.Data;
+
+@Data
+public class UploadSessionRequest {
+    private String title;
+    private String description;
+    private String director;
+    private String releaseDate;
+    private String rating;
+    private String genre;
+    private String fileName;
+    private String contentType;
+    private long length;
+}
@@ -0,0 +1,18 @@
+package org.example.movices.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContinueWatchingResponse {
+    private MovieResponse movie;
+    // Resume with "Range: bytes=<positionBytes>-"
+    private long positionBytes;
+    private long lengthBytes;
+    private Instant updatedAt;
+}
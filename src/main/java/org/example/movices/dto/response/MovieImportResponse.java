@@ -0,0 +1,20 @@
+package org.example.movices.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MovieImportResponse {
+    private long total;
+    private long created;
+    private long duplicates;
+    private long invalid;
+    private long failed;
+    private long elapsedMillis;
+    private List<MovieImportResult> rows;
+}
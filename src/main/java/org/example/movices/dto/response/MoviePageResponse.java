@@ -0,0 +1,17 @@
+package org.example.movices.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MoviePageResponse {
+    private List<MovieResponse> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
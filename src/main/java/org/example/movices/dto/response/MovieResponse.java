@@ -1,6 +1,12 @@
 package org.example.movices.dto.response;
 
 import lombok.Data;
+import org.example.movices.model.entity.enums.MovieStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
 
 @Data
 public class MovieResponse {
@@ -8,9 +14,13 @@ public class MovieResponse {
     private String title;
     private String description;
     private String director;
-    private String releaseDate;
-    private String rating;
-    private String genre;
+    private LocalDate releaseDate;
+    private BigDecimal rating;
+    private List<String> genres;
     private String thumbnailImage;
     private String video;
+    private MovieStatus status;
+    private Integer durationSeconds;
+    private long version;
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package org.example.movices.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MovieSuggestion {
+    private Long id;
+    private String title;
+}
@@ -0,0 +1,26 @@
+package org.example.movices.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.example.movices.model.entity.enums.UploadJobStatus;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadJobResponse {
+    private Long id;
+    private UploadJobStatus status;
+    private Long movieId;
+    private int attempts;
+    private String error;
+    private String contentType;
+    private Long size;
+    private String sha256;
+    private Instant createdAt;
+    private Instant updatedAt;
+    // Only set once the job has succeeded
+    private MovieResponse movie;
+}
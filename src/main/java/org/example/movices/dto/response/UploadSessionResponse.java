@@ -0,0 +1,18 @@
+package org.example.movices.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UploadSessionResponse {
+    private String id;
+    private long offset;
+    private long length;
+    private boolean complete;
+    private Instant expiresAt;
+}
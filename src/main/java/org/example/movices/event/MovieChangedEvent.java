@@ -0,0 +1,12 @@
+package org.example.movices.event;
+
+import org.example.movices.model.entity.Movie;
+
+public record MovieChangedEvent(Type type, Movie movie) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,8 @@
+package org.example.movices.event;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+// Views per movie id that were just written for the given UTC day; sequence numbers the flush, see ViewFlushSequence
+public record MovieViewsFlushedEvent(long sequence, LocalDate day, Map<Long, Long> views) {
+}
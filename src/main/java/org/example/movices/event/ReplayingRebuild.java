@@ -0,0 +1,78 @@
+package org.example.movices.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rebuilds an in-memory view from the database while its events keep arriving. The read runs
+ * outside the view's lock. Events recorded meanwhile are applied right away and replayed on top of
+ * what the read returned; a {@link MovieViewsFlushedEvent} whose sequence the read already covers
+ * is skipped, so no views are counted twice. Replaying a {@link MovieChangedEvent} is idempotent.
+ */
+public class ReplayingRebuild {
+
+    private final ReentrantReadWriteLock lock;
+    private final Consumer<Object> apply;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Events that arrive while a rebuild reads; guarded by the write lock
+    private List<Object> missedEvents;
+
+    public ReplayingRebuild(ReentrantReadWriteLock lock, Consumer<Object> apply) {
+        this.lock = lock;
+        this.apply = apply;
+    }
+
+    public void record(Object event) {
+        lock.writeLock().lock();
+        try {
+            apply.accept(event);
+            if (missedEvents != null) {
+                missedEvents.add(event);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public <T> void rebuild(Supplier<T> read, Consumer<T> load) {
+        rebuild(read, value -> Long.MAX_VALUE, load);
+    }
+
+    // flushedThrough: the sequence of the last view flush the read includes
+    public <T> void rebuild(Supplier<T> read, ToLongFunction<T> flushedThrough, Consumer<T> load) {
+        rebuildLock.lock();
+        try {
+            setMissedEvents(new ArrayList<>());
+            T value = read.get();
+            long covered = flushedThrough.applyAsLong(value);
+            lock.writeLock().lock();
+            try {
+                load.accept(value);
+                for (Object event : missedEvents) {
+                    if (!(event instanceof MovieViewsFlushedEvent flushed && flushed.sequence() <= covered)) {
+                        apply.accept(event);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            setMissedEvents(null);
+            rebuildLock.unlock();
+        }
+    }
+
+    private void setMissedEvents(List<Object> events) {
+        lock.writeLock().lock();
+        try {
+            missedEvents = events;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.movices.exception;
+
+public class BadRequestException extends RuntimeException {
+    public BadRequestException(String message) {
+        super(message);
+    }
+    public BadRequestException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,10 @@
+package org.example.movices.exception;
+
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+    public PayloadTooLargeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,69 @@
+package org.example.movices.mapper;
+
+import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.exception.BadRequestException;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.util.DateUtils;
+import org.example.movices.util.MovieFieldParser;
+import org.mapstruct.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface MovieMapper {
+
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "thumbnailImage", ignore = true)
+    @Mapping(target = "video", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "titleNormalized", ignore = true)
+    @Mapping(target = "descriptionNormalized", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "genres", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "durationSeconds", ignore = true)
+    Movie toEntity(MovieRequest request);
+
+    MovieResponse toResponse(Movie movie);
+
+    List<MovieResponse> toResponses(List<Movie> movies);
+
+    // Partial update: fields left null in the request keep their current value
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "thumbnailImage", ignore = true)
+    @Mapping(target = "video", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "titleNormalized", ignore = true)
+    @Mapping(target = "descriptionNormalized", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "genres", ignore = true)
+    @Mapping(target = "status", ignore = true)
+    @Mapping(target = "durationSeconds", ignore = true)
+    void updateEntity(MovieRequest request, @MappingTarget Movie movie);
+
+    default LocalDate toReleaseDate(String releaseDate) {
+        try {
+            return DateUtils.parseReleaseDate(releaseDate);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    default BigDecimal toRating(String rating) {
+        try {
+            return MovieFieldParser.parseRating(rating);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    default List<String> toGenreNames(Set<Genre> genres) {
+        return genres == null ? List.of() : genres.stream().map(Genre::getName).sorted().toList();
+    }
+}
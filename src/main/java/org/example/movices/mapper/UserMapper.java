@@ -0,0 +1,21 @@
+package org.example.movices.mapper;
+
+import org.example.movices.dto.response.UserResponse;
+import org.example.movices.model.entity.Role;
+import org.example.movices.model.entity.User;
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+
+import java.util.List;
+
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
+public interface UserMapper {
+
+    UserResponse toResponse(User user);
+
+    List<UserResponse> toResponses(List<User> users);
+
+    default String roleName(Role role) {
+        return role.getName().name();
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "media_blobs")
+@Data
+public class MediaBlob {
+    @Id
+    @Column(name = "blob_key", length = 80)
+    private String key;
+
+    @Column(length = 64)
+    private String sha256;
+
+    private long size;
+
+    @Column(nullable = false)
+    private int refCount;
+
+    private Instant createdAt;
+}
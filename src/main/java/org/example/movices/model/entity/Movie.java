@@ -2,9 +2,27 @@ package org.example.movices.model.entity;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.search.TextAnalyzer;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
 
 @Entity
-@Table(name = "movies")
+@Table(name = "movies", indexes = {
+        @Index(name = "idx_movies_released_on", columnList = "released_on, id"),
+        @Index(name = "idx_movies_rating_value", columnList = "rating_value, id"),
+        // Year range first, rating second: serves "released in ... rated at least ..." browsing
+        @Index(name = "idx_movies_released_rating", columnList = "released_on, rating_value"),
+        @Index(name = "idx_movies_director_title", columnList = "director, title"),
+        @Index(name = "idx_movies_updated_at", columnList = "updated_at, id"),
+        @Index(name = "idx_movies_title_normalized", columnList = "title_normalized")
+})
 @Data
 public class Movie {
     @Id
@@ -17,11 +35,53 @@ public class Movie {
     @Column(length = 500)
     private String description;
     private String director;
-    private String releaseDate;
-    private String rating;
-    private String genre;
+
+    // Typed replacements for the legacy free-text release_date, rating and genre columns; see LegacyMovieColumnsMigrator
+    @Column(name = "released_on")
+    private LocalDate releaseDate;
+
+    @Column(name = "rating_value", precision = 3, scale = 1)
+    private BigDecimal rating;
+
+    @ManyToMany(fetch = FetchType.EAGER)
+    @BatchSize(size = 100)
+    @JoinTable(
+            name = "movie_genres",
+            joinColumns = @JoinColumn(name = "movie_id"),
+            inverseJoinColumns = @JoinColumn(name = "genre_id"),
+            indexes = @Index(name = "idx_movie_genres_genre", columnList = "genre_id, movie_id"))
+    private Set<Genre> genres = new HashSet<>();
 
     private String thumbnailImage;
 
     private String video;
+
+    // PENDING until the upload job has verified and stored the media; rows from before the column are READY
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16)
+    private MovieStatus status = MovieStatus.READY;
+
+    // Probed from the container header; null when the format carries none we can read
+    private Integer durationSeconds;
+
+    @UpdateTimestamp
+    private Instant updatedAt;
+
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    // Lowercased, accent-free copies for ranked search; maintained on every write
+    @Column(length = 200)
+    private String titleNormalized;
+
+    @Column(length = 500)
+    private String descriptionNormalized;
+
+    @PrePersist
+    @PreUpdate
+    public void normalizeSearchColumns() {
+        titleNormalized = TextAnalyzer.normalize(title);
+        descriptionNormalized = description == null ? null : TextAnalyzer.normalize(description);
+    }
 }
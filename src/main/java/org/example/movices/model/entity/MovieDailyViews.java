@@ -0,0 +1,28 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Written in batches by ViewTrackingServiceImpl; never through JPA
+@Entity
+@Table(name = "movie_daily_views",
+        uniqueConstraints = @UniqueConstraint(name = "uk_movie_daily_views_movie_day", columnNames = {"movie_id", "view_day"}),
+        indexes = @Index(name = "idx_movie_daily_views_day", columnList = "view_day, movie_id"))
+@Data
+public class MovieDailyViews {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    // UTC day of the flush that wrote the views
+    @Column(name = "view_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private long views;
+}
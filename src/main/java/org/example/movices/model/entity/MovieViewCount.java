@@ -0,0 +1,21 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Written in batches by ViewTrackingServiceImpl; never through JPA
+@Entity
+@Table(name = "movie_view_counts", indexes = @Index(name = "idx_movie_view_counts_views", columnList = "views, movie_id"))
+@Data
+public class MovieViewCount {
+    @Id
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Column(nullable = false)
+    private long views;
+
+    private Instant lastViewedAt;
+}
@@ -0,0 +1,71 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.example.movices.model.entity.enums.UploadJobStatus;
+
+import java.time.Instant;
+
+// Processing of one accepted upload; see UploadJobServiceImpl
+@Entity
+@Table(name = "upload_jobs", indexes = @Index(name = "idx_upload_jobs_status", columnList = "status, id"))
+@Data
+public class UploadJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The PENDING movie; cleared when a failed job removes it again
+    @Column(name = "movie_id")
+    private Long movieId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private UploadJobStatus status;
+
+    // Staged files, deleted once the job has finished either way
+    @Column(length = 500, nullable = false)
+    private String videoPath;
+
+    @Column(length = 10)
+    private String videoExtension;
+
+    @Column(length = 500)
+    private String photoPath;
+
+    @Column(length = 10)
+    private String photoExtension;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    // A RUNNING job whose lease has passed is considered abandoned and queued again
+    private Instant lockedUntil;
+
+    @Column(length = 500)
+    private String error;
+
+    // Filled in from the file itself once processed
+    @Column(length = 50)
+    private String contentType;
+
+    private Long size;
+
+    @Column(length = 64)
+    private String sha256;
+
+    // Media stored by an attempt and not yet handed to the movie; released if the job fails
+    @Column(length = 100)
+    private String videoKey;
+
+    @Column(length = 100)
+    private String thumbnailKey;
+
+    private Integer durationSeconds;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,49 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// A resumable chunked upload; see ChunkedUploadServiceImpl. Deleted once finalized, aborted or expired.
+@Entity
+@Table(name = "upload_sessions")
+@Data
+public class UploadSession {
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(length = 200, nullable = false)
+    private String title;
+
+    @Column(length = 500)
+    private String description;
+
+    private String director;
+
+    // As sent; parsed when the upload is finalized into a movie
+    private String releaseDate;
+
+    private String rating;
+
+    private String genre;
+
+    private String fileName;
+
+    @Column(length = 100, nullable = false)
+    private String contentType;
+
+    @Column(name = "declared_length", nullable = false)
+    private long length;
+
+    @Column(length = 500, nullable = false)
+    private String stagedPath;
+
+    // Byte ranges on disk as "start-end" pairs, end exclusive, e.g. "0-1048576,2097152-3145728"
+    @Lob
+    private String receivedRanges;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+}
@@ -0,0 +1,16 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+// Single row holding the sequence of the last committed view flush; see ViewFlushSequence
+@Entity
+@Table(name = "view_flush_state")
+@Data
+public class ViewFlushState {
+    @Id
+    private Long id;
+
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+}
@@ -0,0 +1,34 @@
+package org.example.movices.model.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.Instant;
+
+// Written in batches by ViewTrackingServiceImpl; never through JPA
+@Entity
+@Table(name = "watch_progress",
+        uniqueConstraints = @UniqueConstraint(name = "uk_watch_progress_user_movie", columnNames = {"user_id", "movie_id"}),
+        indexes = @Index(name = "idx_watch_progress_user_updated", columnList = "user_id, updated_at"))
+@Data
+public class WatchProgress {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "movie_id", nullable = false)
+    private Long movieId;
+
+    // Byte offset the player last asked for; clients resume with "Range: bytes=<positionBytes>-"
+    @Column(nullable = false)
+    private long positionBytes;
+
+    @Column(nullable = false)
+    private long lengthBytes;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,17 @@
+package org.example.movices.model.entity.enums;
+
+public enum MovieSortField {
+    TITLE("title"),
+    RELEASE_DATE("releaseDate"),
+    RATING("rating");
+
+    private final String property;
+
+    MovieSortField(String property) {
+        this.property = property;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.movices.model.entity.enums;
+
+public enum MovieStatus {
+    // Accepted, media still being processed by an upload job
+    PENDING,
+    READY
+}
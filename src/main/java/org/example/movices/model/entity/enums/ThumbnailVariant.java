@@ -0,0 +1,27 @@
+package org.example.movices.model.entity.enums;
+
+public enum ThumbnailVariant {
+    SMALL(160),
+    MEDIUM(320),
+    LARGE(640);
+
+    private final int width;
+
+    ThumbnailVariant(int width) {
+        this.width = width;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    // Smallest variant at least as wide as requested, or the largest one
+    public static ThumbnailVariant bestFit(int width) {
+        for (ThumbnailVariant variant : values()) {
+            if (variant.width >= width) {
+                return variant;
+            }
+        }
+        return LARGE;
+    }
+}
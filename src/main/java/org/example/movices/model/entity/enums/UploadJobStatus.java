@@ -0,0 +1,12 @@
+package org.example.movices.model.entity.enums;
+
+public enum UploadJobStatus {
+    QUEUED,
+    RUNNING,
+    SUCCEEDED,
+    FAILED;
+
+    public boolean isFinished() {
+        return this == SUCCEEDED || this == FAILED;
+    }
+}
@@ -0,0 +1,18 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.Genre;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface GenreRepository extends JpaRepository<Genre, Long> {
+
+    // Names are unique regardless of case (MySQL's default collation would reject "drama" next to "Drama")
+    @Query("SELECT g FROM Genre g WHERE LOWER(g.name) IN :names")
+    List<Genre> findByLowerNameIn(@Param("names") Collection<String> lowerNames);
+}
@@ -0,0 +1,28 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.MediaBlob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface MediaBlobRepository extends JpaRepository<MediaBlob, String> {
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount + 1 WHERE b.key = :key")
+    int incrementRefCount(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MediaBlob b SET b.refCount = b.refCount - 1 WHERE b.key = :key AND b.refCount > 0")
+    int decrementRefCount(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MediaBlob b WHERE b.key = :key AND b.refCount <= 0")
+    int deleteUnreferenced(@Param("key") String key);
+}
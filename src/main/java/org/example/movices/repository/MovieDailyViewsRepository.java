@@ -0,0 +1,11 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.MovieDailyViews;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface MovieDailyViewsRepository extends JpaRepository<MovieDailyViews, Long> {
+    List<MovieDailyViews> findByDayGreaterThanEqual(LocalDate day);
+}
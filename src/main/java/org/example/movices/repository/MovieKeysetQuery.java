@@ -0,0 +1,26 @@
+package org.example.movices.repository;
+
+import lombok.Builder;
+import lombok.Value;
+import org.example.movices.model.entity.enums.MovieSortField;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Value
+@Builder
+public class MovieKeysetQuery {
+    MovieSortField sortField;
+    boolean ascending;
+    // Position of the last row of the previous page; both null for the first page
+    Long afterId;
+    Object afterValue;
+    String genre;
+    String director;
+    BigDecimal minRating;
+    BigDecimal maxRating;
+    // Release date range, from inclusive and before exclusive
+    LocalDate releasedFrom;
+    LocalDate releasedBefore;
+    int limit;
+}
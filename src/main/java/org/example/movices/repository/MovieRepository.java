@@ -1,18 +1,30 @@
 package org.example.movices.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface MovieRepository extends JpaRepository<Movie, Long> {
+public interface MovieRepository extends JpaRepository<Movie, Long>, MovieRepositoryCustom {
     boolean existsByTitle(String title);
     boolean existsByTitleIgnoreCase(String title);
     Movie findByTitle(String title);
 
+    // Catalog reads ask for READY movies; a PENDING one belongs to its upload job until completed
+    List<Movie> findByStatus(MovieStatus status);
+
     Optional<Movie> findByTitleIgnoreCase(String title);
     List<Movie> findByTitleContainingIgnoreCase(String title);
 
@@ -20,4 +32,53 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
             "LOWER(m.title) LIKE LOWER(CONCAT('%', :query, '%')) OR " +
             "LOWER(m.description) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<Movie> searchMovie(@Param("query") String query);
+
+    // Exact title, then title prefix, then title contains, then description matches; '!' escapes LIKE wildcards
+    @Query("SELECT m FROM Movie m WHERE m.status = org.example.movices.model.entity.enums.MovieStatus.READY " +
+            "AND (m.titleNormalized LIKE :contains ESCAPE '!' OR m.descriptionNormalized LIKE :contains ESCAPE '!') " +
+            "ORDER BY CASE WHEN m.titleNormalized = :exact THEN 0 " +
+            "WHEN m.titleNormalized LIKE :prefix ESCAPE '!' THEN 1 " +
+            "WHEN m.titleNormalized LIKE :contains ESCAPE '!' THEN 2 ELSE 3 END, m.titleNormalized, m.id")
+    List<Movie> searchRanked(@Param("exact") String exact,
+                             @Param("prefix") String prefix,
+                             @Param("contains") String contains,
+                             Pageable pageable);
+
+    // Genre browse: genres.name (unique) -> movie_genres (genre_id, movie_id) -> movies by primary key
+    @Query("SELECT m FROM Movie m JOIN m.genres g WHERE g.name = :genre " +
+            "AND m.releaseDate >= :from AND m.releaseDate < :before AND m.rating >= :minRating " +
+            "AND m.status = org.example.movices.model.entity.enums.MovieStatus.READY " +
+            "ORDER BY m.rating DESC, m.id DESC")
+    List<Movie> findByGenreReleasedBetween(@Param("genre") String genre,
+                                           @Param("from") LocalDate from,
+                                           @Param("before") LocalDate before,
+                                           @Param("minRating") BigDecimal minRating,
+                                           Pageable pageable);
+
+    // Year range with a rating floor: a range scan on idx_movies_released_rating
+    @Query("SELECT m FROM Movie m WHERE m.releaseDate >= :from AND m.releaseDate < :before AND m.rating >= :minRating " +
+            "AND m.status = org.example.movices.model.entity.enums.MovieStatus.READY " +
+            "ORDER BY m.rating DESC, m.id DESC")
+    List<Movie> findReleasedBetweenRatedAtLeast(@Param("from") LocalDate from,
+                                                @Param("before") LocalDate before,
+                                                @Param("minRating") BigDecimal minRating,
+                                                Pageable pageable);
+
+    // Streaming reads for the export; must be consumed inside a transaction and closed.
+    // Genres are fetched in the same query: rows are detached one by one, so batch fetching can't group them.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.genres WHERE m.status = org.example.movices.model.entity.enums.MovieStatus.READY ORDER BY m.id")
+    Stream<Movie> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT m FROM Movie m LEFT JOIN FETCH m.genres WHERE m.updatedAt >= :since AND m.status = org.example.movices.model.entity.enums.MovieStatus.READY ORDER BY m.id")
+    Stream<Movie> streamUpdatedSince(@Param("since") Instant since);
 }
@@ -0,0 +1,9 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.Movie;
+
+import java.util.List;
+
+public interface MovieRepositoryCustom {
+    List<Movie> findPage(MovieKeysetQuery query);
+}
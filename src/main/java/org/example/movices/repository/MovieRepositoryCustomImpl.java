@@ -0,0 +1,102 @@
+package org.example.movices.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.*;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MovieRepositoryCustomImpl implements MovieRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows with a NULL sort key, or all the others; a page that crosses from one to the other reads both
+    private enum Segment { ALL, NULL_KEYS, KEYS }
+
+    @Override
+    public List<Movie> findPage(MovieKeysetQuery query) {
+        if (query.getAfterId() == null) {
+            return select(query, Segment.ALL, null, query.getLimit());
+        }
+        // MySQL sorts NULL lowest: ascending the NULL keys come first, descending they come last
+        boolean afterNullKey = query.getAfterValue() == null;
+        List<Movie> page = new ArrayList<>(select(query, afterNullKey ? Segment.NULL_KEYS : Segment.KEYS,
+                query.getAfterId(), query.getLimit()));
+        if (page.size() < query.getLimit() && query.isAscending() == afterNullKey) {
+            page.addAll(select(query, afterNullKey ? Segment.KEYS : Segment.NULL_KEYS, null,
+                    query.getLimit() - page.size()));
+        }
+        return page;
+    }
+
+    // Every seek predicate is a range on the leading index column ANDed with the filters, never an OR
+    // around them, so the (key, id) index can start at the cursor instead of scanning from the top
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<Movie> select(MovieKeysetQuery query, Segment segment, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Movie> cq = cb.createQuery(Movie.class);
+        Root<Movie> movie = cq.from(Movie.class);
+
+        Expression<Comparable> key = movie.get(query.getSortField().getProperty());
+        Path<Long> id = movie.get("id");
+        Path<BigDecimal> rating = movie.get("rating");
+        Path<LocalDate> releaseDate = movie.get("releaseDate");
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(movie.get("status"), MovieStatus.READY));
+        if (query.getGenre() != null) {
+            // Inner join through movie_genres (genre_id, movie_id); a movie lists a genre at most once, so no duplicates
+            Join<Movie, Genre> genre = movie.join("genres");
+            predicates.add(cb.equal(genre.get("name"), query.getGenre()));
+        }
+        if (query.getDirector() != null) {
+            predicates.add(cb.equal(movie.get("director"), query.getDirector()));
+        }
+        if (query.getReleasedFrom() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(releaseDate, query.getReleasedFrom()));
+        }
+        if (query.getReleasedBefore() != null) {
+            predicates.add(cb.lessThan(releaseDate, query.getReleasedBefore()));
+        }
+        if (query.getMinRating() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(rating, query.getMinRating()));
+        }
+        if (query.getMaxRating() != null) {
+            predicates.add(cb.lessThanOrEqualTo(rating, query.getMaxRating()));
+        }
+
+        boolean ascending = query.isAscending();
+        if (segment == Segment.NULL_KEYS) {
+            predicates.add(cb.isNull(key));
+            if (afterId != null) {
+                predicates.add(ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId));
+            }
+        } else if (segment == Segment.KEYS && afterId == null) {
+            predicates.add(cb.isNotNull(key));
+        } else if (segment == Segment.KEYS) {
+            Comparable value = (Comparable) query.getAfterValue();
+            // key >= value AND (key > value OR id > afterId), mirrored when descending
+            predicates.add(ascending ? cb.greaterThanOrEqualTo(key, value) : cb.lessThanOrEqualTo(key, value));
+            predicates.add(cb.or(
+                    ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value),
+                    ascending ? cb.greaterThan(id, afterId) : cb.lessThan(id, afterId)));
+        }
+
+        cq.select(movie)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(ascending
+                        ? List.of(cb.asc(key), cb.asc(id))
+                        : List.of(cb.desc(key), cb.desc(id)));
+
+        return entityManager.createQuery(cq)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.MovieViewCount;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+
+public interface MovieViewCountRepository extends JpaRepository<MovieViewCount, Long> {
+
+    // Reads idx_movie_view_counts_views backwards
+    @Query("SELECT v FROM MovieViewCount v ORDER BY v.views DESC, v.movieId DESC")
+    List<MovieViewCount> findMostViewed(Pageable pageable);
+}
@@ -0,0 +1,44 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.UploadJob;
+import org.example.movices.model.entity.enums.UploadJobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface UploadJobRepository extends JpaRepository<UploadJob, Long> {
+
+    @Query("SELECT j.id FROM UploadJob j WHERE j.status = :status ORDER BY j.id")
+    List<Long> findIdsByStatus(@Param("status") UploadJobStatus status, Pageable pageable);
+
+    // Conditional, so only one worker (or instance) wins a queued job
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadJob j SET j.status = org.example.movices.model.entity.enums.UploadJobStatus.RUNNING, "
+            + "j.attempts = j.attempts + 1, j.lockedUntil = :lockedUntil, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = org.example.movices.model.entity.enums.UploadJobStatus.QUEUED")
+    int claim(@Param("id") Long id, @Param("lockedUntil") Instant lockedUntil, @Param("now") Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadJob j SET j.status = org.example.movices.model.entity.enums.UploadJobStatus.QUEUED, "
+            + "j.lockedUntil = null, j.updatedAt = :now "
+            + "WHERE j.status = org.example.movices.model.entity.enums.UploadJobStatus.RUNNING AND j.lockedUntil < :now")
+    int requeueExpired(@Param("now") Instant now);
+
+    // Hands a claimed job back without counting the attempt, e.g. on shutdown
+    @Transactional
+    @Modifying
+    @Query("UPDATE UploadJob j SET j.status = org.example.movices.model.entity.enums.UploadJobStatus.QUEUED, "
+            + "j.attempts = j.attempts - 1, j.lockedUntil = null, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = org.example.movices.model.entity.enums.UploadJobStatus.RUNNING")
+    int release(@Param("id") Long id, @Param("now") Instant now);
+}
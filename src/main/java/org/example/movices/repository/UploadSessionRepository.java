@@ -0,0 +1,15 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    @Transactional
+    long deleteByExpiresAtBefore(Instant cutoff);
+}
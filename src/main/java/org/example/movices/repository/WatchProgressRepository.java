@@ -0,0 +1,17 @@
+package org.example.movices.repository;
+
+import org.example.movices.model.entity.WatchProgress;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface WatchProgressRepository extends JpaRepository<WatchProgress, Long> {
+
+    // Started but not past 95%; the rest counts as finished
+    @Query("SELECT p FROM WatchProgress p WHERE p.userId = :userId AND p.positionBytes > 0 " +
+            "AND p.positionBytes * 20 < p.lengthBytes * 19 ORDER BY p.updatedAt DESC")
+    List<WatchProgress> findUnfinished(@Param("userId") Long userId, Pageable pageable);
+}
@@ -0,0 +1,258 @@
+package org.example.movices.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.ReplayingRebuild;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over title, description, director and genre, ranked with BM25.
+ * Field boosts are folded into the term frequencies (a simplified BM25F). The index is rebuilt
+ * from the database once the application is ready, without blocking searches while it reads, and
+ * kept current from {@link MovieChangedEvent}s.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MovieSearchIndex {
+
+    private static final float TITLE_BOOST = 3.0f;
+    private static final float DIRECTOR_BOOST = 1.5f;
+    private static final float GENRE_BOOST = 1.5f;
+    private static final float DESCRIPTION_BOOST = 1.0f;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 50;
+    private static final double PREFIX_WEIGHT = 0.7;
+
+    private final MovieRepository movieRepository;
+    private final MovieMapper movieMapper;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, IndexedMovie> documents = new HashMap<>();
+    private final Map<String, Long> titles = new HashMap<>();
+    private double totalLength;
+    private volatile boolean ready;
+    private final ReplayingRebuild rebuilds = new ReplayingRebuild(lock, this::apply);
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        rebuilds.rebuild(() -> movieRepository.findByStatus(MovieStatus.READY), movies -> {
+            postings.clear();
+            documents.clear();
+            titles.clear();
+            totalLength = 0;
+            movies.forEach(this::add);
+            ready = true;
+            log.info("Indexed {} movies for search in {} ms", documents.size(), (System.nanoTime() - start) / 1_000_000);
+        });
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        rebuilds.record(event);
+    }
+
+    private void apply(Object event) {
+        MovieChangedEvent changed = (MovieChangedEvent) event;
+        remove(changed.movie().getId());
+        if (changed.type() != MovieChangedEvent.Type.DELETED) {
+            add(changed.movie());
+        }
+    }
+
+    public List<MovieResponse> search(String query, int limit) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = score(tokens);
+            return topK(scores.keySet(), limit, Comparator.comparingDouble(scores::get));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MovieResponse> searchRelevant(String query, int limit) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = TextAnalyzer.normalize(query);
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = score(tokens);
+            // Exact title beats title-contains beats everything else; BM25 orders within each tier
+            Comparator<Long> order = Comparator.<Long>comparingInt(id -> titleTier(documents.get(id), normalized))
+                    .thenComparingDouble(scores::get);
+            return topK(scores.keySet(), limit, order);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<MovieResponse> searchTitle(String query, int limit) {
+        List<String> tokens = TextAnalyzer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+        String normalized = TextAnalyzer.normalize(query);
+        lock.readLock().lock();
+        try {
+            Long exact = titles.get(normalized);
+            if (exact != null) {
+                return List.of(documents.get(exact).response());
+            }
+            // Every query token has to start some title token
+            Set<Long> candidates = null;
+            for (String token : tokens) {
+                Set<Long> matches = new HashSet<>();
+                for (Map<Long, Float> docs : expand(token, true).keySet()) {
+                    for (Long id : docs.keySet()) {
+                        if (documents.get(id).titleTerms().stream().anyMatch(term -> term.startsWith(token))) {
+                            matches.add(id);
+                        }
+                    }
+                }
+                if (candidates == null) {
+                    candidates = matches;
+                } else {
+                    candidates.retainAll(matches);
+                }
+            }
+            return topK(candidates, limit, Comparator.comparing((Long id) -> documents.get(id).normalizedTitle()).reversed());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> score(List<String> tokens) {
+        Map<Long, Double> scores = new HashMap<>();
+        double avgLength = documents.isEmpty() ? 1 : totalLength / documents.size();
+        int n = documents.size();
+        for (int i = 0; i < tokens.size(); i++) {
+            boolean last = i == tokens.size() - 1;
+            for (Map.Entry<Map<Long, Float>, Double> expansion : expand(tokens.get(i), last).entrySet()) {
+                Map<Long, Float> docs = expansion.getKey();
+                double idf = Math.log(1 + (n - docs.size() + 0.5) / (docs.size() + 0.5));
+                for (Map.Entry<Long, Float> posting : docs.entrySet()) {
+                    double tf = posting.getValue();
+                    double length = documents.get(posting.getKey()).length();
+                    double bm25 = idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / avgLength));
+                    scores.merge(posting.getKey(), expansion.getValue() * bm25, Double::sum);
+                }
+            }
+        }
+        return scores;
+    }
+
+    // The exact term at full weight; when prefix matching is on, up to MAX_PREFIX_EXPANSIONS longer terms at a discount
+    private Map<Map<Long, Float>, Double> expand(String token, boolean prefix) {
+        Map<Map<Long, Float>, Double> expansions = new IdentityHashMap<>();
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) {
+            expansions.put(exact, 1.0);
+        }
+        if (prefix) {
+            int count = 0;
+            for (Map.Entry<String, Map<Long, Float>> entry : postings.tailMap(token, false).entrySet()) {
+                if (!entry.getKey().startsWith(token) || count++ >= MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                expansions.put(entry.getValue(), PREFIX_WEIGHT);
+            }
+        }
+        return expansions;
+    }
+
+    private List<MovieResponse> topK(Collection<Long> ids, int limit, Comparator<Long> order) {
+        if (ids == null || ids.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        // Min-heap of the best `limit` ids; ties broken by id for a stable order
+        Comparator<Long> ranking = order.thenComparing(Comparator.<Long>reverseOrder());
+        PriorityQueue<Long> heap = new PriorityQueue<>(limit + 1, ranking);
+        for (Long id : ids) {
+            heap.offer(id);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<MovieResponse> results = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            results.add(documents.get(heap.poll()).response());
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    private int titleTier(IndexedMovie movie, String normalizedQuery) {
+        if (movie.normalizedTitle().equals(normalizedQuery)) {
+            return 2;
+        }
+        return movie.normalizedTitle().contains(normalizedQuery) ? 1 : 0;
+    }
+
+    private void add(Movie movie) {
+        Map<String, Float> weights = new HashMap<>();
+        List<String> titleTerms = TextAnalyzer.tokenize(movie.getTitle());
+        float length = addField(weights, titleTerms, TITLE_BOOST)
+                + addField(weights, TextAnalyzer.tokenize(movie.getDescription()), DESCRIPTION_BOOST)
+                + addField(weights, TextAnalyzer.tokenize(movie.getDirector()), DIRECTOR_BOOST)
+                + addField(weights, TextAnalyzer.tokenize(String.join(" ", movieMapper.toGenreNames(movie.getGenres()))), GENRE_BOOST);
+
+        String normalizedTitle = TextAnalyzer.normalize(movie.getTitle());
+        IndexedMovie indexed = new IndexedMovie(
+                movieMapper.toResponse(movie), normalizedTitle, weights, Set.copyOf(titleTerms), length);
+        documents.put(movie.getId(), indexed);
+        titles.put(normalizedTitle, movie.getId());
+        totalLength += length;
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(movie.getId(), weight));
+    }
+
+    private float addField(Map<String, Float> weights, List<String> tokens, float boost) {
+        tokens.forEach(token -> weights.merge(token, boost, Float::sum));
+        return tokens.size() * boost;
+    }
+
+    private void remove(Long id) {
+        IndexedMovie existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        titles.remove(existing.normalizedTitle(), id);
+        totalLength -= existing.length();
+        for (String term : existing.termWeights().keySet()) {
+            Map<Long, Float> docs = postings.get(term);
+            if (docs != null) {
+                docs.remove(id);
+                if (docs.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private record IndexedMovie(MovieResponse response, String normalizedTitle, Map<String, Float> termWeights,
+                                Set<String> titleTerms, float length) {
+    }
+}
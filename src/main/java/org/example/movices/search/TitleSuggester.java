@@ -0,0 +1,287 @@
+package org.example.movices.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.dto.response.MovieSuggestion;
+import org.example.movices.config.ViewFlushSequence;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.MovieViewsFlushedEvent;
+import org.example.movices.event.ReplayingRebuild;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.MovieViewCount;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.MovieViewCountRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix trie over normalized movie titles for search-box suggestions. Every word start of a title
+ * is a key, so "knight" finds "The Dark Knight". Each node caches the best {@value #TOP_K} movies
+ * below it by popularity weight, which turns an exact-prefix lookup into a walk plus a list copy.
+ * The weight is the log of a movie's total views, as flushed by view tracking, with the rating as a
+ * tie-breaker. Fuzzy lookups run a Levenshtein automaton over the trie and stop at the first node
+ * within the edit budget.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TitleSuggester {
+
+    static final int TOP_K = 10;
+
+    private final MovieRepository movieRepository;
+    private final MovieViewCountRepository movieViewCountRepository;
+    private final ViewFlushSequence viewFlushSequence;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Node root = new Node();
+    private final Map<Long, String> titles = new HashMap<>();
+    private final Map<Long, List<String>> keys = new HashMap<>();
+    private final Map<Long, Double> ratings = new HashMap<>();
+    private final Map<Long, Double> weights = new HashMap<>();
+    private final Map<Long, Long> views = new HashMap<>();
+    private final ReplayingRebuild rebuilds = new ReplayingRebuild(lock, this::apply);
+
+    private record Snapshot(List<Movie> movies, List<MovieViewCount> counts) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilds.rebuild(
+                () -> viewFlushSequence.read(() -> new Snapshot(movieRepository.findByStatus(MovieStatus.READY),
+                        movieViewCountRepository.findAll())),
+                ViewFlushSequence.Stamped::sequence,
+                stamped -> load(stamped.value()));
+    }
+
+    private void load(Snapshot snapshot) {
+        root.children.clear();
+        root.terminals.clear();
+        root.top = List.of();
+        titles.clear();
+        keys.clear();
+        ratings.clear();
+        weights.clear();
+        views.clear();
+        snapshot.counts().forEach(count -> views.put(count.getMovieId(), count.getViews()));
+        snapshot.movies().forEach(this::add);
+        log.info("Built title suggestions for {} movies", titles.size());
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        rebuilds.record(event);
+    }
+
+    @EventListener
+    public void onViewsFlushed(MovieViewsFlushedEvent event) {
+        rebuilds.record(event);
+    }
+
+    private void apply(Object event) {
+        if (event instanceof MovieChangedEvent changed) {
+            remove(changed.movie().getId());
+            if (changed.type() == MovieChangedEvent.Type.DELETED) {
+                views.remove(changed.movie().getId());
+            } else {
+                add(changed.movie());
+            }
+        } else if (event instanceof MovieViewsFlushedEvent flushed) {
+            flushed.views().forEach((id, count) -> {
+                views.merge(id, count, Long::sum);
+                if (titles.containsKey(id)) {
+                    weights.put(id, weight(id));
+                    keys.get(id).forEach(this::refreshPath);
+                }
+            });
+        }
+    }
+
+    public List<MovieSuggestion> suggest(String prefix, int limit) {
+        String normalized = TextAnalyzer.normalize(prefix);
+        int k = Math.max(1, Math.min(limit, TOP_K));
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            // Best match per movie: fewer edits first, then heavier weight
+            Map<Long, Integer> edits = new HashMap<>();
+            collectFuzzy(normalized, maxEdits(normalized), edits);
+
+            return edits.entrySet().stream()
+                    .sorted(Comparator.<Map.Entry<Long, Integer>>comparingInt(Map.Entry::getValue)
+                            .thenComparing(entry -> -weights.getOrDefault(entry.getKey(), 0d))
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(k)
+                    .map(entry -> new MovieSuggestion(entry.getKey(), titles.get(entry.getKey())))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int maxEdits(String prefix) {
+        if (prefix.length() < 4) {
+            return 0;
+        }
+        return prefix.length() < 8 ? 1 : 2;
+    }
+
+    private void collectFuzzy(String prefix, int maxEdits, Map<Long, Integer> edits) {
+        int[] firstRow = new int[prefix.length() + 1];
+        for (int i = 0; i < firstRow.length; i++) {
+            firstRow[i] = i;
+        }
+        collectFuzzy(root, prefix, firstRow, maxEdits, edits);
+    }
+
+    private void collectFuzzy(Node node, String prefix, int[] row, int maxEdits, Map<Long, Integer> edits) {
+        int distance = row[prefix.length()];
+        if (distance <= maxEdits) {
+            // Everything below this node extends an acceptable prefix; its cached top list covers the subtree
+            for (Long id : node.top) {
+                edits.merge(id, distance, Math::min);
+            }
+        }
+        int best = Arrays.stream(row).min().orElse(Integer.MAX_VALUE);
+        // Keep descending only while a deeper node could still beat what was recorded here
+        if (best > maxEdits || best >= Math.min(distance, maxEdits + 1)) {
+            return;
+        }
+        for (Map.Entry<Character, Node> child : node.children.entrySet()) {
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            for (int i = 1; i < row.length; i++) {
+                int cost = prefix.charAt(i - 1) == child.getKey() ? 0 : 1;
+                next[i] = Math.min(Math.min(next[i - 1] + 1, row[i] + 1), row[i - 1] + cost);
+            }
+            collectFuzzy(child.getValue(), prefix, next, maxEdits, edits);
+        }
+    }
+
+    private void add(Movie movie) {
+        String normalized = TextAnalyzer.normalize(movie.getTitle());
+        if (normalized.isEmpty()) {
+            return;
+        }
+        List<String> movieKeys = new ArrayList<>();
+        movieKeys.add(normalized);
+        for (int i = 1; i < normalized.length(); i++) {
+            if (!Character.isLetterOrDigit(normalized.charAt(i - 1)) && Character.isLetterOrDigit(normalized.charAt(i))) {
+                movieKeys.add(normalized.substring(i));
+            }
+        }
+
+        titles.put(movie.getId(), movie.getTitle());
+        keys.put(movie.getId(), movieKeys);
+        ratings.put(movie.getId(), movie.getRating() == null ? 0 : movie.getRating().doubleValue());
+        weights.put(movie.getId(), weight(movie.getId()));
+        for (String key : movieKeys) {
+            Node node = root;
+            for (char c : key.toCharArray()) {
+                node = node.children.computeIfAbsent(c, ch -> new Node());
+            }
+            node.terminals.add(movie.getId());
+            refreshPath(key);
+        }
+    }
+
+    private void remove(Long id) {
+        List<String> movieKeys = keys.remove(id);
+        if (movieKeys == null) {
+            return;
+        }
+        titles.remove(id);
+        ratings.remove(id);
+        weights.remove(id);
+        for (String key : movieKeys) {
+            Deque<Node> path = path(key);
+            if (path.size() == key.length() + 1) {
+                path.peekLast().terminals.remove(id);
+            }
+            refreshPath(key);
+            prune(key);
+        }
+    }
+
+    // Ratings stay within 0-10, so they only order movies whose view counts are of the same magnitude
+    private double weight(Long id) {
+        return Math.log1p(views.getOrDefault(id, 0L)) + ratings.getOrDefault(id, 0d) / 100;
+    }
+
+    // Recompute cached top lists from the deepest node of the key back up to the root
+    private void refreshPath(String key) {
+        Deque<Node> path = path(key);
+        while (!path.isEmpty()) {
+            Node node = path.pollLast();
+            PriorityQueue<Long> heap = new PriorityQueue<>(Comparator.comparingDouble((Long id) -> weights.getOrDefault(id, 0d))
+                    .thenComparing(Comparator.<Long>reverseOrder()));
+            Set<Long> seen = new HashSet<>();
+            for (Long id : node.terminals) {
+                offer(heap, seen, id);
+            }
+            for (Node child : node.children.values()) {
+                for (Long id : child.top) {
+                    offer(heap, seen, id);
+                }
+            }
+            Long[] top = new Long[heap.size()];
+            for (int i = top.length - 1; i >= 0; i--) {
+                top[i] = heap.poll();
+            }
+            node.top = List.of(top);
+        }
+    }
+
+    private void offer(PriorityQueue<Long> heap, Set<Long> seen, Long id) {
+        if (!seen.add(id)) {
+            return;
+        }
+        heap.offer(id);
+        if (heap.size() > TOP_K) {
+            seen.remove(heap.poll());
+        }
+    }
+
+    private Deque<Node> path(String key) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.add(node);
+        for (char c : key.toCharArray()) {
+            node = node.children.get(c);
+            if (node == null) {
+                break;
+            }
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void prune(String key) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                return;
+            }
+            if (child.top.isEmpty()) {
+                node.children.remove(key.charAt(i));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final Set<Long> terminals = new HashSet<>(2);
+        private List<Long> top = List.of();
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.movices.service;
+
+import org.example.movices.dto.request.UploadSessionRequest;
+import org.example.movices.dto.response.UploadJobResponse;
+import org.example.movices.dto.response.UploadSessionResponse;
+
+import java.io.InputStream;
+
+public interface ChunkedUploadService {
+    UploadSessionResponse createSession(UploadSessionRequest request);
+    UploadSessionResponse getSession(String id);
+    UploadSessionResponse writeChunk(String id, long offset, InputStream chunk, long contentLength);
+    UploadJobResponse finalizeUpload(String id);
+    void abortUpload(String id);
+}
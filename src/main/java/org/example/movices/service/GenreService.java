@@ -0,0 +1,10 @@
+package org.example.movices.service;
+
+import org.example.movices.model.entity.Genre;
+
+import java.util.Collection;
+import java.util.Set;
+
+public interface GenreService {
+    Set<Genre> resolve(Collection<String> names);
+}
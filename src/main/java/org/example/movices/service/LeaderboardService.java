@@ -0,0 +1,13 @@
+package org.example.movices.service;
+
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.PopularMovieResponse;
+
+import java.util.List;
+
+public interface LeaderboardService {
+    // genre may be null for the overall board
+    List<MovieResponse> topRated(String genre, int limit);
+    List<PopularMovieResponse> trending(String genre, int limit);
+    void rebuild();
+}
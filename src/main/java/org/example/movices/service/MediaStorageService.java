@@ -0,0 +1,18 @@
+package org.example.movices.service;
+
+import org.springframework.core.io.Resource;
+
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface MediaStorageService {
+    StoredMedia store(InputStream content, String extension, long maxBytes);
+    StoredMedia store(Path file, String extension);
+    void retain(String key);
+    boolean release(String key);
+    boolean exists(String key);
+    Resource load(String key);
+
+    record StoredMedia(String key, String sha256, long size, boolean deduplicated) {
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.movices.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+public interface MediaStreamingService {
+
+    // Bytes [start, end] of a file of the given length were sent in the response body
+    record ServedRange(long start, long end, long length) {
+    }
+
+    /**
+     * Writes the file honouring conditional and range headers. Returns the range sent, or null when
+     * no body was sent (304, 416 or a HEAD request).
+     */
+    ServedRange stream(Path file, String fileName, boolean attachment,
+                HttpServletRequest request, HttpServletResponse response) throws IOException;
+}
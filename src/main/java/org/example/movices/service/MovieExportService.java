@@ -0,0 +1,14 @@
+package org.example.movices.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+
+public interface MovieExportService {
+
+    enum Format {
+        NDJSON, JSON
+    }
+
+    long export(Format format, Instant since, OutputStream out) throws IOException;
+}
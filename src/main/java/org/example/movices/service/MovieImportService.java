@@ -0,0 +1,15 @@
+package org.example.movices.service;
+
+import org.example.movices.dto.response.MovieImportResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface MovieImportService {
+
+    enum Format {
+        CSV, NDJSON
+    }
+
+    MovieImportResponse importMovies(Format format, InputStream content) throws IOException;
+}
@@ -1,21 +1,32 @@
 package org.example.movices.service;
+import org.example.movices.dto.request.MoviePageRequest;
 import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.MoviePageResponse;
 import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.MovieSuggestion;
 
 import org.springframework.core.io.Resource;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.InputStream;
 import java.util.List;
 
 public interface MovieService {
-    MovieResponse createMovieWithFile(MovieRequest movieRequest, MultipartFile video,MultipartFile photo);
+    MovieResponse createPendingMovie(MovieRequest movieRequest);
+    MovieResponse completePendingMovie(Long id, String videoKey, String thumbnailKey, Integer durationSeconds);
+    void discardPendingMovie(Long id);
+    MovieResponse createMovieFromStream(MovieRequest movieRequest, InputStream video, String originalFilename, String contentType, long contentLength);
     MovieResponse getMovieById(Long id);
     List<MovieResponse> getAllMovies();
+    MoviePageResponse getMoviePage(MoviePageRequest pageRequest);
     MovieResponse updateMovie(Long id, MovieRequest movieRequest, MultipartFile video, MultipartFile photo);
     void deleteMovie(Long id);
     Resource downloadMovie(Long id);
     List<MovieResponse> searchMovie(String query);
     List<MovieResponse> searchMovie(String query, boolean exactMatch);
+    List<MovieResponse> searchReleven(String query);
+    List<MovieResponse> searchReleven(String query, int page, int size);
+    List<MovieSuggestion> suggestTitles(String prefix, int limit);
 }
 
 
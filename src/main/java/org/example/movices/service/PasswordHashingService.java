@@ -0,0 +1,7 @@
+package org.example.movices.service;
+
+public interface PasswordHashingService {
+    String encode(CharSequence rawPassword);
+    boolean matches(CharSequence rawPassword, String encodedPassword);
+    boolean needsRehash(String encodedPassword);
+}
@@ -0,0 +1,13 @@
+package org.example.movices.service;
+
+import org.example.movices.model.entity.enums.ThumbnailVariant;
+import org.springframework.core.io.Resource;
+
+import java.nio.file.Path;
+import java.util.Optional;
+
+public interface ThumbnailService {
+    void enqueue(String sourceKey);
+    Optional<Path> find(String sourceKey, ThumbnailVariant variant);
+    Resource loadOriginal(String sourceKey);
+}
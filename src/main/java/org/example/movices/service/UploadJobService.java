@@ -0,0 +1,14 @@
+package org.example.movices.service;
+
+import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.UploadJobResponse;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.file.Path;
+
+public interface UploadJobService {
+    UploadJobResponse submit(MovieRequest movieRequest, MultipartFile video, MultipartFile photo);
+    // Takes ownership of the staged file: it is moved into storage or deleted once the job ends
+    UploadJobResponse submit(MovieRequest movieRequest, Path stagedVideo, String originalFilename);
+    UploadJobResponse getJob(Long id);
+}
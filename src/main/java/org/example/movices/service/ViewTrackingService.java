@@ -0,0 +1,14 @@
+package org.example.movices.service;
+
+import org.example.movices.dto.response.ContinueWatchingResponse;
+import org.example.movices.dto.response.PopularMovieResponse;
+
+import java.util.List;
+
+public interface ViewTrackingService {
+    // userId may be null for anonymous playback; only views are counted then
+    void recordPlayback(Long userId, Long movieId, MediaStreamingService.ServedRange range);
+    List<PopularMovieResponse> popular(int limit);
+    List<ContinueWatchingResponse> continueWatching(Long userId, int limit);
+    void flush();
+}
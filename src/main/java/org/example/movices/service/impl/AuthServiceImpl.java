@@ -13,8 +13,8 @@ import org.example.movices.model.entity.enums.RoleType;
 import org.example.movices.repository.RoleRepository;
 import org.example.movices.repository.UserRepository;
 import org.example.movices.service.AuthService;
+import org.example.movices.service.PasswordHashingService;
 import org.example.movices.config.JwtTokenProvider;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.HashSet;
@@ -28,7 +28,7 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider jwtTokenProvider;
 
     @Override
@@ -46,7 +46,7 @@ public class AuthServiceImpl implements AuthService {
         User user = new User();
         user.setUsername(request.getUsername().toLowerCase());
         user.setEmail(request.getEmail().toLowerCase());
-        user.setPassword(passwordEncoder.encode(request.getPassword()));
+        user.setPassword(passwordHashingService.encode(request.getPassword()));
 
         Set<Role> assignedRoles = new HashSet<>();
 
@@ -77,10 +77,16 @@ public class AuthServiceImpl implements AuthService {
                 .orElseThrow(() -> new UnauthorizedException("Invalid credentials"));
 
         // Validate password
-        if (!passwordEncoder.matches(request.getPassword(), userEntity.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), userEntity.getPassword())) {
             throw new UnauthorizedException("Invalid credentials");
         }
 
+        // Bring the stored hash to the configured cost while the plain password is at hand
+        if (passwordHashingService.needsRehash(userEntity.getPassword())) {
+            userEntity.setPassword(passwordHashingService.encode(request.getPassword()));
+            userEntity = userRepository.save(userEntity);
+        }
+
         // Get role names
         List<String> roles = userEntity.getRoles()
                 .stream()
@@ -88,14 +94,13 @@ public class AuthServiceImpl implements AuthService {
                 .collect(Collectors.toList());
 
         // Generate JWT
-        String token = jwtTokenProvider.generateToken(userEntity);
-        long expiresAt = jwtTokenProvider.getExpirationDateFromToken(token).getTime();
+        JwtTokenProvider.IssuedToken token = jwtTokenProvider.issueToken(userEntity);
 
         return new JwtResponse(
-                token,
+                token.token(),
                 userEntity.getUsername(),
                 roles,
-                expiresAt
+                token.expiresAt()
         );
     }
 }
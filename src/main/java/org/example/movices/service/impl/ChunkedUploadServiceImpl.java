@@ -0,0 +1,431 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.request.UploadSessionRequest;
+import org.example.movices.dto.response.UploadJobResponse;
+import org.example.movices.dto.response.UploadSessionResponse;
+import org.example.movices.exception.BadRequestException;
+import org.example.movices.exception.DuplicateResourceException;
+import org.example.movices.exception.PayloadTooLargeException;
+import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.model.entity.UploadSession;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.UploadSessionRepository;
+import org.example.movices.service.ChunkedUploadService;
+import org.example.movices.service.UploadJobService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChunkedUploadServiceImpl implements ChunkedUploadService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String STAGED_SUFFIX = ".upload";
+
+    private final UploadJobService uploadJobService;
+    private final MovieRepository movieRepository;
+    private final UploadSessionRepository uploadSessionRepository;
+    private final MeterRegistry meterRegistry;
+
+    // Open sessions of this instance; upload_sessions keeps what is needed to reopen them after a restart
+    private final Map<String, OpenSession> sessions = new ConcurrentHashMap<>();
+
+    @Value("${movies.upload.staging-dir:uploads/staging}")
+    private String stagingDir;
+
+    @Value("${movies.upload.max-video-bytes:2097152000}")
+    private long maxVideoBytes;
+
+    @Value("${movies.upload.session-ttl:PT24H}")
+    private Duration sessionTtl;
+
+    @Override
+    public UploadSessionResponse createSession(UploadSessionRequest request) {
+        if (request.getTitle() == null || request.getTitle().trim().isEmpty()) {
+            throw new BadRequestException("Movie title required");
+        }
+        if (request.getContentType() == null || !request.getContentType().startsWith("video/")) {
+            throw new BadRequestException("Invalid video file type");
+        }
+        if (request.getLength() <= 0) {
+            throw new BadRequestException("Upload length must be positive");
+        }
+        if (request.getLength() > maxVideoBytes) {
+            throw new PayloadTooLargeException("Video file size must be less than " + maxVideoBytes + " bytes");
+        }
+        if (movieRepository.existsByTitle(request.getTitle())) {
+            throw new DuplicateResourceException("Movie with title '" + request.getTitle() + "' already exists");
+        }
+
+        String id = UUID.randomUUID().toString();
+        try {
+            Path stagingPath = Paths.get(stagingDir);
+            Files.createDirectories(stagingPath);
+            Path file = stagingPath.resolve(id + STAGED_SUFFIX);
+
+            // Reserve the full length up front so chunks can be written at any offset
+            try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+                raf.setLength(request.getLength());
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+
+            OpenSession session = new OpenSession(id, request, file, channel, Instant.now().plus(sessionTtl));
+            try {
+                uploadSessionRepository.save(toEntity(session));
+            } catch (RuntimeException e) {
+                discard(session);
+                throw e;
+            }
+            sessions.put(id, session);
+            return toResponse(session);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create upload session: " + e.getMessage(), e);
+        }
+    }
+
+    // Staged files survive a restart, and so do the ranges recorded for them
+    @EventListener(ApplicationReadyEvent.class)
+    public void restoreSessions() {
+        Instant now = Instant.now();
+        int restored = 0;
+        for (UploadSession stored : uploadSessionRepository.findAll()) {
+            Path file = Paths.get(stored.getStagedPath());
+            // Expired ones go with the next sweep; a missing file may belong to another instance
+            if (sessions.containsKey(stored.getId()) || stored.getExpiresAt().isBefore(now) || !Files.exists(file)) {
+                continue;
+            }
+            try {
+                OpenSession session = new OpenSession(stored.getId(), toRequest(stored), file,
+                        FileChannel.open(file, StandardOpenOption.WRITE), stored.getExpiresAt());
+                parseRanges(stored.getReceivedRanges()).forEach(session::markReceived);
+                sessions.put(session.id, session);
+                restored++;
+            } catch (IOException e) {
+                log.warn("Failed to reopen upload session {}: {}", stored.getId(), e.getMessage());
+            }
+        }
+        if (restored > 0) {
+            log.info("Restored {} upload sessions", restored);
+        }
+    }
+
+    @Override
+    public UploadSessionResponse getSession(String id) {
+        return toResponse(findSession(id));
+    }
+
+    @Override
+    public UploadSessionResponse writeChunk(String id, long offset, InputStream chunk, long contentLength) {
+        OpenSession session = findSession(id);
+        long length = session.request.getLength();
+        if (offset < 0 || offset >= length) {
+            throw new BadRequestException("Upload-Offset " + offset + " is outside the upload of " + length + " bytes");
+        }
+        if (contentLength > 0 && offset + contentLength > length) {
+            throw new PayloadTooLargeException("Chunk extends past the declared upload length");
+        }
+
+        session.touch(sessionTtl);
+        long position = offset;
+        try {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = chunk.read(buffer)) != -1) {
+                if (position + read > length) {
+                    throw new PayloadTooLargeException("Chunk extends past the declared upload length");
+                }
+                // Positional writes do not move the channel position, so concurrent chunks don't interfere
+                ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                while (data.hasRemaining()) {
+                    position += session.channel.write(data, position);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to write chunk: " + e.getMessage(), e);
+        } finally {
+            // Whatever made it to disk is kept so the client can resume from the reported offset
+            if (position > offset) {
+                meterRegistry.counter("movies.upload.chunk.bytes").increment(position - offset);
+                record(session, offset, position);
+            }
+        }
+        return toResponse(session);
+    }
+
+    @Override
+    public UploadJobResponse finalizeUpload(String id) {
+        OpenSession session = findSession(id);
+        if (session.contiguousOffset() != session.request.getLength()) {
+            throw new BadRequestException("Upload is incomplete: " + session.contiguousOffset()
+                    + " of " + session.request.getLength() + " bytes received");
+        }
+        if (sessions.remove(id) == null) {
+            throw new ResourceNotFoundException("Upload session not found: " + id);
+        }
+        uploadSessionRepository.deleteById(id);
+
+        UploadSessionRequest request = session.request;
+        MovieRequest movieRequest = new MovieRequest();
+        movieRequest.setTitle(request.getTitle());
+        movieRequest.setDescription(request.getDescription());
+        movieRequest.setDirector(request.getDirector());
+        movieRequest.setReleaseDate(request.getReleaseDate());
+        movieRequest.setRating(request.getRating());
+        movieRequest.setGenre(request.getGenre());
+
+        Path handedOver;
+        try {
+            session.channel.force(false);
+            session.channel.close();
+            // Renamed to a job file so the orphan sweep leaves it alone; the job owns it from here on
+            handedOver = Files.move(session.file,
+                    session.file.resolveSibling(UploadJobServiceImpl.STAGED_PREFIX + session.id + STAGED_SUFFIX));
+        } catch (IOException e) {
+            discard(session);
+            throw new RuntimeException("Failed to finalize upload: " + e.getMessage(), e);
+        }
+        return uploadJobService.submit(movieRequest, handedOver, request.getFileName());
+    }
+
+    @Override
+    public void abortUpload(String id) {
+        OpenSession session = sessions.remove(id);
+        if (session == null) {
+            throw new ResourceNotFoundException("Upload session not found: " + id);
+        }
+        uploadSessionRepository.deleteById(id);
+        discard(session);
+    }
+
+    @Scheduled(fixedDelayString = "${movies.upload.session-sweep-ms:600000}")
+    public void purgeAbandonedSessions() {
+        Instant now = Instant.now();
+        sessions.values().removeIf(session -> {
+            if (session.expiresAt.isAfter(now)) {
+                return false;
+            }
+            log.info("Discarding abandoned upload session {} for '{}'", session.id, session.request.getTitle());
+            discard(session);
+            return true;
+        });
+        uploadSessionRepository.deleteByExpiresAtBefore(now);
+        purgeOrphanedFiles(now.minus(sessionTtl));
+    }
+
+    // Files no session was restored for, e.g. after a crash between creating one and recording it; job-* files belong to upload jobs
+    private void purgeOrphanedFiles(Instant cutoff) {
+        Path stagingPath = Paths.get(stagingDir);
+        if (!Files.isDirectory(stagingPath)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stagingPath, "*" + STAGED_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.startsWith(UploadJobServiceImpl.STAGED_PREFIX)
+                        || sessions.containsKey(name.substring(0, name.length() - STAGED_SUFFIX.length()))
+                        || Files.getLastModifiedTime(file).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                log.info("Deleting staged upload {} left behind by an earlier run", file);
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Failed to sweep staged uploads in {}: {}", stagingPath, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void closeSessions() {
+        // Staged files are kept on shutdown; only the channels are released
+        sessions.values().forEach(session -> {
+            try {
+                session.channel.close();
+            } catch (IOException ignored) {
+                // channel already unusable
+            }
+        });
+    }
+
+    private OpenSession findSession(String id) {
+        OpenSession session = sessions.get(id);
+        if (session == null) {
+            throw new ResourceNotFoundException("Upload session not found: " + id);
+        }
+        return session;
+    }
+
+    // Forced to disk before the range is recorded, so a restored session never claims bytes a crash lost
+    private void record(OpenSession session, long start, long end) {
+        try {
+            session.channel.force(false);
+        } catch (IOException e) {
+            log.warn("Failed to sync upload session {}: {}", session.id, e.getMessage());
+            return;
+        }
+        // Under the session lock so that concurrent chunks save their ranges in order
+        session.lock.lock();
+        try {
+            session.markReceived(start, end);
+            uploadSessionRepository.save(toEntity(session));
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    private void discard(OpenSession session) {
+        try {
+            session.channel.close();
+            Files.deleteIfExists(session.file);
+        } catch (IOException e) {
+            log.warn("Failed to clean up upload session {}: {}", session.id, e.getMessage());
+        }
+    }
+
+    private UploadSessionResponse toResponse(OpenSession session) {
+        long offset = session.contiguousOffset();
+        return new UploadSessionResponse(
+                session.id,
+                offset,
+                session.request.getLength(),
+                offset == session.request.getLength(),
+                session.expiresAt
+        );
+    }
+
+    private UploadSession toEntity(OpenSession session) {
+        UploadSessionRequest request = session.request;
+        UploadSession entity = new UploadSession();
+        entity.setId(session.id);
+        entity.setTitle(request.getTitle());
+        entity.setDescription(request.getDescription());
+        entity.setDirector(request.getDirector());
+        entity.setReleaseDate(request.getReleaseDate());
+        entity.setRating(request.getRating());
+        entity.setGenre(request.getGenre());
+        entity.setFileName(request.getFileName());
+        entity.setContentType(request.getContentType());
+        entity.setLength(request.getLength());
+        entity.setStagedPath(session.file.toString());
+        entity.setReceivedRanges(session.ranges());
+        entity.setExpiresAt(session.expiresAt);
+        return entity;
+    }
+
+    private UploadSessionRequest toRequest(UploadSession stored) {
+        UploadSessionRequest request = new UploadSessionRequest();
+        request.setTitle(stored.getTitle());
+        request.setDescription(stored.getDescription());
+        request.setDirector(stored.getDirector());
+        request.setReleaseDate(stored.getReleaseDate());
+        request.setRating(stored.getRating());
+        request.setGenre(stored.getGenre());
+        request.setFileName(stored.getFileName());
+        request.setContentType(stored.getContentType());
+        request.setLength(stored.getLength());
+        return request;
+    }
+
+    private Map<Long, Long> parseRanges(String ranges) {
+        Map<Long, Long> parsed = new TreeMap<>();
+        if (ranges == null || ranges.isEmpty()) {
+            return parsed;
+        }
+        for (String range : ranges.split(",")) {
+            int dash = range.indexOf('-');
+            parsed.put(Long.parseLong(range.substring(0, dash)), Long.parseLong(range.substring(dash + 1)));
+        }
+        return parsed;
+    }
+
+    private static final class OpenSession {
+        private final String id;
+        private final UploadSessionRequest request;
+        private final Path file;
+        private final FileChannel channel;
+        private final ReentrantLock lock = new ReentrantLock();
+        // Received byte ranges as start -> end (exclusive), kept merged
+        private final TreeMap<Long, Long> received = new TreeMap<>();
+        private volatile Instant expiresAt;
+
+        private OpenSession(String id, UploadSessionRequest request, Path file, FileChannel channel, Instant expiresAt) {
+            this.id = id;
+            this.request = request;
+            this.file = file;
+            this.channel = channel;
+            this.expiresAt = expiresAt;
+        }
+
+        private void touch(Duration ttl) {
+            expiresAt = Instant.now().plus(ttl);
+        }
+
+        private void markReceived(long start, long end) {
+            lock.lock();
+            try {
+                Map.Entry<Long, Long> floor = received.floorEntry(start);
+                if (floor != null && floor.getValue() >= start) {
+                    start = floor.getKey();
+                    end = Math.max(end, floor.getValue());
+                }
+                Map.Entry<Long, Long> next = received.ceilingEntry(start);
+                while (next != null && next.getKey() <= end) {
+                    end = Math.max(end, next.getValue());
+                    received.remove(next.getKey());
+                    next = received.ceilingEntry(start);
+                }
+                received.put(start, end);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private String ranges() {
+            lock.lock();
+            try {
+                StringJoiner joined = new StringJoiner(",");
+                received.forEach((start, end) -> joined.add(start + "-" + end));
+                return joined.toString();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private long contiguousOffset() {
+            lock.lock();
+            try {
+                Long end = received.get(0L);
+                return end == null ? 0 : end;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package org.example.movices.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.model.entity.MediaBlob;
+import org.example.movices.repository.MediaBlobRepository;
+import org.example.movices.service.MediaStorageService;
+import org.example.movices.util.DigestingFileWriter;
+import org.example.movices.util.MediaKeys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Content-addressed blob store on the local filesystem. Blobs are named after their SHA-256 and
+ * sharded two levels deep ({@code ab/cd/abcd...mp4}); reference counts live in {@code media_blobs}.
+ * Keys that are not content hashes are legacy flat files from before the store existed and
+ * are resolved directly under the upload directory; keys that would resolve outside it are treated
+ * as missing.
+ */
+@Service
+@RequiredArgsConstructor
+public class FileSystemMediaStorageService implements MediaStorageService {
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final MediaBlobRepository mediaBlobRepository;
+    private final ReentrantLock[] locks = createLocks();
+
+    @Value("${file.upload-dir:uploads}")
+    private String uploadDir;
+
+    @Override
+    public StoredMedia store(InputStream content, String extension, long maxBytes) {
+        try {
+            Path temp = tempFile();
+            DigestingFileWriter.Result result = DigestingFileWriter.write(content, temp, maxBytes);
+            return adopt(temp, result.sha256(), result.bytes(), extension);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store media: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StoredMedia store(Path file, String extension) {
+        try {
+            return adopt(file, DigestingFileWriter.sha256(file), Files.size(file), extension);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store media: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void retain(String key) {
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            Path path = locate(key).filter(Files::exists)
+                    .orElseThrow(() -> new ResourceNotFoundException("Media not found: " + key));
+            if (mediaBlobRepository.incrementRefCount(key) == 0) {
+                // Legacy files have no row yet; count the movie that already owns it plus this one
+                insertBlob(key, null, Files.size(path), MediaKeys.isContentKey(key) ? 1 : 2);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to retain media: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean release(String key) {
+        Optional<Path> path = key == null ? Optional.empty() : locate(key);
+        if (path.isEmpty()) {
+            return false;
+        }
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            boolean tracked = mediaBlobRepository.decrementRefCount(key) > 0;
+            if (tracked && mediaBlobRepository.deleteUnreferenced(key) == 0) {
+                return false;
+            }
+            // Untracked keys are legacy single-owner files
+            return Files.deleteIfExists(path.get());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to delete media: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return key != null && locate(key).filter(Files::exists).isPresent();
+    }
+
+    @Override
+    public Resource load(String key) {
+        Path path = (key == null ? Optional.<Path>empty() : locate(key)).filter(Files::exists)
+                .orElseThrow(() -> new ResourceNotFoundException("Media file not found on server"));
+        return new FileSystemResource(path);
+    }
+
+    private StoredMedia adopt(Path source, String sha256, long size, String extension) throws IOException {
+        String key = extension == null || extension.isEmpty() ? sha256 : sha256 + "." + extension;
+        Path target = resolve(key);
+
+        ReentrantLock lock = lockFor(key);
+        lock.lock();
+        try {
+            boolean deduplicated = Files.exists(target);
+            if (deduplicated) {
+                Files.delete(source);
+            } else {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(source, target);
+                }
+            }
+            if (mediaBlobRepository.incrementRefCount(key) == 0) {
+                insertBlob(key, sha256, size, 1);
+            }
+            return new StoredMedia(key, sha256, size, deduplicated);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void insertBlob(String key, String sha256, long size, int refCount) {
+        MediaBlob blob = new MediaBlob();
+        blob.setKey(key);
+        blob.setSha256(sha256);
+        blob.setSize(size);
+        blob.setRefCount(refCount);
+        blob.setCreatedAt(Instant.now());
+        try {
+            mediaBlobRepository.save(blob);
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the row first
+            mediaBlobRepository.incrementRefCount(key);
+        }
+    }
+
+    private Path resolve(String key) {
+        Path root = Paths.get(uploadDir);
+        return root.resolve(key.substring(0, 2)).resolve(key.substring(2, 4)).resolve(key);
+    }
+
+    // Empty for keys that are neither content hashes nor a file below the upload directory
+    private Optional<Path> locate(String key) {
+        if (MediaKeys.isContentKey(key)) {
+            return Optional.of(resolve(key));
+        }
+        Path root = Paths.get(uploadDir).normalize();
+        Path path = root.resolve(key).normalize();
+        return path.startsWith(root) && !path.equals(root) ? Optional.of(path) : Optional.empty();
+    }
+
+    private Path tempFile() throws IOException {
+        Path tmp = Paths.get(uploadDir, "tmp");
+        Files.createDirectories(tmp);
+        return tmp.resolve(UUID.randomUUID().toString());
+    }
+
+    private ReentrantLock lockFor(String key) {
+        return locks[Math.floorMod(key.hashCode(), LOCK_STRIPES)];
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
+    }
+}
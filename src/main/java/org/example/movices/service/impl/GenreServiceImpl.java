@@ -0,0 +1,50 @@
+package org.example.movices.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.repository.GenreRepository;
+import org.example.movices.service.GenreService;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class GenreServiceImpl implements GenreService {
+
+    private final GenreRepository genreRepository;
+
+    // Existing genres are matched case-insensitively; missing ones are created with the spelling given
+    @Override
+    public Set<Genre> resolve(Collection<String> names) {
+        if (names.isEmpty()) {
+            return new HashSet<>();
+        }
+        Map<String, String> requested = new LinkedHashMap<>();
+        names.forEach(name -> requested.putIfAbsent(name.toLowerCase(Locale.ROOT), name));
+
+        Map<String, Genre> found = new HashMap<>();
+        genreRepository.findByLowerNameIn(requested.keySet())
+                .forEach(genre -> found.put(genre.getName().toLowerCase(Locale.ROOT), genre));
+        for (Map.Entry<String, String> entry : requested.entrySet()) {
+            if (!found.containsKey(entry.getKey())) {
+                found.put(entry.getKey(), create(entry.getValue()));
+            }
+        }
+        return new HashSet<>(found.values());
+    }
+
+    private Genre create(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        try {
+            return genreRepository.save(genre);
+        } catch (DataIntegrityViolationException e) {
+            // Created concurrently by another request
+            return genreRepository.findByLowerNameIn(List.of(name.toLowerCase(Locale.ROOT))).stream()
+                    .findFirst()
+                    .orElseThrow(() -> e);
+        }
+    }
+}
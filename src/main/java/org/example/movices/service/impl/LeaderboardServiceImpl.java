@@ -0,0 +1,271 @@
+package org.example.movices.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.config.ViewFlushSequence;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.PopularMovieResponse;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.MovieViewsFlushedEvent;
+import org.example.movices.event.ReplayingRebuild;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.MovieDailyViews;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieDailyViewsRepository;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.service.LeaderboardService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory "top rated" and "trending this week" boards, overall and per genre. Each board keeps
+ * its movies in sorted sets, so a write moves one entry in O(log n) and a read takes the first k.
+ * Ratings follow {@link MovieChangedEvent}s; views arrive per flush as {@link MovieViewsFlushedEvent}s
+ * and are bucketed by UTC day, and trending ranks by the sum of the last {@value #TRENDING_DAYS}
+ * days. Both boards are rebuilt from the movies and movie_daily_views tables on startup.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LeaderboardServiceImpl implements LeaderboardService {
+
+    static final int TRENDING_DAYS = 7;
+    private static final int MAX_LIMIT = 100;
+
+    private final MovieRepository movieRepository;
+    private final MovieDailyViewsRepository movieDailyViewsRepository;
+    private final MovieMapper movieMapper;
+    private final ViewFlushSequence viewFlushSequence;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, MovieResponse> movies = new HashMap<>();
+    private final Map<Long, Set<String>> genres = new HashMap<>();
+    private final Board topRated = new Board();
+    private final Board trending = new Board();
+    // Views per movie, slot = epoch day modulo TRENDING_DAYS; slots are cleared as days roll over
+    private final Map<Long, long[]> dailyViews = new HashMap<>();
+    private long today = LocalDate.now(ZoneOffset.UTC).toEpochDay();
+    private final ReplayingRebuild rebuilds = new ReplayingRebuild(lock, this::apply);
+
+    private record Snapshot(LocalDate day, List<Movie> movies, List<MovieDailyViews> recent) {
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuilds.rebuild(
+                () -> viewFlushSequence.read(() -> {
+                    LocalDate day = LocalDate.now(ZoneOffset.UTC);
+                    return new Snapshot(day, movieRepository.findByStatus(MovieStatus.READY),
+                            movieDailyViewsRepository.findByDayGreaterThanEqual(day.minusDays(TRENDING_DAYS - 1)));
+                }),
+                ViewFlushSequence.Stamped::sequence,
+                stamped -> load(stamped.value()));
+    }
+
+    private void load(Snapshot snapshot) {
+        movies.clear();
+        genres.clear();
+        topRated.clear();
+        trending.clear();
+        dailyViews.clear();
+        today = snapshot.day().toEpochDay();
+        snapshot.recent().forEach(row -> addViews(row.getMovieId(), row.getDay().toEpochDay(), row.getViews()));
+        // Pending uploads join through their CREATED event once playable
+        snapshot.movies().forEach(this::add);
+        log.info("Built leaderboards for {} movies ({} trending)", movies.size(), trending.size());
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        rebuilds.record(event);
+    }
+
+    @EventListener
+    public void onViewsFlushed(MovieViewsFlushedEvent event) {
+        rebuilds.record(event);
+    }
+
+    private void apply(Object event) {
+        if (event instanceof MovieChangedEvent changed) {
+            Long id = changed.movie().getId();
+            remove(id);
+            if (changed.type() == MovieChangedEvent.Type.DELETED) {
+                dailyViews.remove(id);
+            } else {
+                add(changed.movie());
+            }
+        } else if (event instanceof MovieViewsFlushedEvent flushed) {
+            long day = flushed.day().toEpochDay();
+            advanceTo(day);
+            flushed.views().forEach((id, count) -> {
+                addViews(id, day, count);
+                if (movies.containsKey(id)) {
+                    trending.put(id, trendingScore(id), genres.get(id));
+                }
+            });
+        }
+    }
+
+    @Scheduled(cron = "${movies.leaderboard.rollover-cron:0 0 0 * * *}", zone = "UTC")
+    public void rollOver() {
+        rollOver(LocalDate.now(ZoneOffset.UTC));
+    }
+
+    void rollOver(LocalDate day) {
+        lock.writeLock().lock();
+        try {
+            advanceTo(day.toEpochDay());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<MovieResponse> topRated(String genre, int limit) {
+        lock.readLock().lock();
+        try {
+            return topRated.top(key(genre), clamp(limit)).stream()
+                    .map(entry -> movies.get(entry.id()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<PopularMovieResponse> trending(String genre, int limit) {
+        lock.readLock().lock();
+        try {
+            return trending.top(key(genre), clamp(limit)).stream()
+                    .map(entry -> new PopularMovieResponse(movies.get(entry.id()), (long) entry.score()))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(Movie movie) {
+        MovieResponse response = movieMapper.toResponse(movie);
+        Set<String> keys = response.getGenres().stream().map(this::key).collect(Collectors.toSet());
+        movies.put(movie.getId(), response);
+        genres.put(movie.getId(), keys);
+        if (movie.getRating() != null) {
+            topRated.put(movie.getId(), movie.getRating().doubleValue(), keys);
+        }
+        long score = trendingScore(movie.getId());
+        if (score > 0) {
+            trending.put(movie.getId(), score, keys);
+        }
+    }
+
+    private void remove(Long id) {
+        Set<String> keys = genres.remove(id);
+        if (keys == null) {
+            return;
+        }
+        movies.remove(id);
+        topRated.remove(id, keys);
+        trending.remove(id, keys);
+    }
+
+    private void addViews(Long id, long day, long count) {
+        if (day > today || day <= today - TRENDING_DAYS) {
+            return;
+        }
+        dailyViews.computeIfAbsent(id, key -> new long[TRENDING_DAYS])[slot(day)] += count;
+    }
+
+    // Clears the slots of the days that left the window and re-ranks everything once
+    private void advanceTo(long day) {
+        if (day <= today) {
+            return;
+        }
+        for (long expired = today + 1; expired <= Math.min(day, today + TRENDING_DAYS); expired++) {
+            int slot = slot(expired);
+            dailyViews.values().forEach(counts -> counts[slot] = 0);
+        }
+        today = day;
+        dailyViews.values().removeIf(counts -> Arrays.stream(counts).allMatch(count -> count == 0));
+        trending.clear();
+        dailyViews.keySet().stream()
+                .filter(movies::containsKey)
+                .forEach(id -> trending.put(id, trendingScore(id), genres.get(id)));
+    }
+
+    private long trendingScore(Long id) {
+        long[] counts = dailyViews.get(id);
+        return counts == null ? 0 : Arrays.stream(counts).sum();
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, TRENDING_DAYS);
+    }
+
+    private String key(String genre) {
+        return genre == null || genre.isBlank() ? null : genre.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private record Ranked(long id, double score) {
+    }
+
+    // One sorted set overall and one per genre, highest score first, newest id breaking ties
+    private static final class Board {
+        private static final Comparator<Ranked> ORDER = Comparator.comparingDouble(Ranked::score).reversed()
+                .thenComparing(Comparator.comparingLong(Ranked::id).reversed());
+
+        private final NavigableSet<Ranked> overall = new TreeSet<>(ORDER);
+        private final Map<String, NavigableSet<Ranked>> byGenre = new HashMap<>();
+        private final Map<Long, Ranked> entries = new HashMap<>();
+
+        void put(long id, double score, Set<String> genres) {
+            remove(id, genres);
+            Ranked entry = new Ranked(id, score);
+            entries.put(id, entry);
+            overall.add(entry);
+            genres.forEach(genre -> byGenre.computeIfAbsent(genre, key -> new TreeSet<>(ORDER)).add(entry));
+        }
+
+        void remove(long id, Set<String> genres) {
+            Ranked entry = entries.remove(id);
+            if (entry == null) {
+                return;
+            }
+            overall.remove(entry);
+            for (String genre : genres) {
+                NavigableSet<Ranked> ranked = byGenre.get(genre);
+                if (ranked != null && ranked.remove(entry) && ranked.isEmpty()) {
+                    byGenre.remove(genre);
+                }
+            }
+        }
+
+        List<Ranked> top(String genre, int limit) {
+            NavigableSet<Ranked> ranked = genre == null ? overall : byGenre.getOrDefault(genre, Collections.emptyNavigableSet());
+            return ranked.stream().limit(limit).toList();
+        }
+
+        int size() {
+            return entries.size();
+        }
+
+        void clear() {
+            overall.clear();
+            byGenre.clear();
+            entries.clear();
+        }
+    }
+}
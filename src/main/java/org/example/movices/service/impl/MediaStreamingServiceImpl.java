@@ -0,0 +1,280 @@
+package org.example.movices.service.impl;
+
+import jakarta.servlet.http.HttpServletRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.apache.catalina.Globals;
+import org.example.movices.service.MediaStreamingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class MediaStreamingServiceImpl implements MediaStreamingService {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${media.stream.cache-control:private, max-age=86400}")
+    private String cacheControl;
+
+    @Value("${media.stream.sendfile:true}")
+    private boolean sendfileEnabled;
+
+    @Override
+    public ServedRange stream(Path file, String fileName, boolean attachment,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        long length = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        String contentType = Files.probeContentType(file);
+        if (contentType == null) {
+            contentType = MediaType.APPLICATION_OCTET_STREAM_VALUE;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+
+        if (isNotModified(request, etag, lastModified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return null;
+        }
+
+        if (fileName != null) {
+            String disposition = attachment ? "attachment" : "inline";
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, disposition + "; filename=\"" + fileName + "\"");
+        }
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        List<ByteRange> ranges = null;
+        if (rangeHeader != null && isIfRangeSatisfied(request, etag, lastModified)) {
+            try {
+                ranges = satisfiableRanges(rangeHeader, length);
+            } catch (IllegalArgumentException e) {
+                // A Range header that does not parse is ignored (RFC 9110 section 14.2)
+            }
+        }
+        if (ranges == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(contentType);
+            response.setContentLengthLong(length);
+            writeRange(file, 0, length, request, response);
+            return served(request, 0, length - 1, length);
+        }
+
+        if (ranges.isEmpty()) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return null;
+        }
+
+        response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+        if (ranges.size() == 1) {
+            long start = ranges.get(0).start();
+            long end = ranges.get(0).end();
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            response.setContentLengthLong(end - start + 1);
+            writeRange(file, start, end - start + 1, request, response);
+            return served(request, start, end, length);
+        }
+
+        writeMultipartRanges(file, contentType, length, ranges, request, response);
+        return served(request, ranges.get(0).start(), ranges.get(ranges.size() - 1).end(), length);
+    }
+
+    record ByteRange(long start, long end) {
+    }
+
+    /**
+     * Resolves a Range header against the file length: unsatisfiable ranges are dropped (RFC 9110
+     * section 14.2) and overlapping or adjacent ones merged, so repeating a range cannot multiply the
+     * response. The result is sorted by start and empty when nothing is satisfiable.
+     *
+     * @throws IllegalArgumentException when the header is malformed
+     */
+    static List<ByteRange> satisfiableRanges(String rangeHeader, long length) {
+        List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+        if (ranges.isEmpty()) {
+            throw new IllegalArgumentException("Range header without ranges: " + rangeHeader);
+        }
+        List<ByteRange> satisfiable = new ArrayList<>();
+        for (HttpRange range : ranges) {
+            long start = range.getRangeStart(length);
+            if (start >= length) {
+                continue;
+            }
+            satisfiable.add(new ByteRange(start, range.getRangeEnd(length)));
+        }
+        satisfiable.sort(Comparator.comparingLong(ByteRange::start));
+
+        List<ByteRange> merged = new ArrayList<>(satisfiable.size());
+        for (ByteRange range : satisfiable) {
+            ByteRange last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && range.start() <= last.end() + 1) {
+                merged.set(merged.size() - 1, new ByteRange(last.start(), Math.max(last.end(), range.end())));
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    private ServedRange served(HttpServletRequest request, long start, long end, long length) {
+        return isHead(request) || length == 0 ? null : new ServedRange(start, end, length);
+    }
+
+    private void writeMultipartRanges(Path file, String contentType, long length, List<ByteRange> ranges,
+                                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String boundary = UUID.randomUUID().toString().replace("-", "");
+        byte[][] partHeaders = new byte[ranges.size()][];
+        byte[] closing = ("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.US_ASCII);
+
+        long contentLength = closing.length;
+        for (int i = 0; i < ranges.size(); i++) {
+            long start = ranges.get(i).start();
+            long end = ranges.get(i).end();
+            partHeaders[i] = ("\r\n--" + boundary + "\r\n"
+                    + HttpHeaders.CONTENT_TYPE + ": " + contentType + "\r\n"
+                    + HttpHeaders.CONTENT_RANGE + ": bytes " + start + "-" + end + "/" + length + "\r\n\r\n")
+                    .getBytes(StandardCharsets.US_ASCII);
+            contentLength += partHeaders[i].length + (end - start + 1);
+        }
+
+        response.setContentType("multipart/byteranges; boundary=" + boundary);
+        response.setContentLengthLong(contentLength);
+        if (isHead(request)) {
+            return;
+        }
+
+        OutputStream out = response.getOutputStream();
+        WritableByteChannel target = Channels.newChannel(out);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (int i = 0; i < ranges.size(); i++) {
+                long start = ranges.get(i).start();
+                long end = ranges.get(i).end();
+                out.write(partHeaders[i]);
+                transfer(channel, start, end - start + 1, target);
+            }
+        }
+        countDownloaded("copy", contentLength);
+        out.write(closing);
+        out.flush();
+    }
+
+    private void writeRange(Path file, long start, long count,
+                            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isHead(request) || count == 0) {
+            return;
+        }
+
+        // Let Tomcat hand the region to the kernel (sendfile) when the connector supports it
+        if (sendfileEnabled && Boolean.TRUE.equals(request.getAttribute(Globals.SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(Globals.SENDFILE_FILENAME_ATTR, file.toFile().getCanonicalPath());
+            request.setAttribute(Globals.SENDFILE_FILE_START_ATTR, start);
+            request.setAttribute(Globals.SENDFILE_FILE_END_ATTR, start + count);
+            countDownloaded("sendfile", count);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            transfer(channel, start, count, Channels.newChannel(response.getOutputStream()));
+        }
+        countDownloaded("copy", count);
+    }
+
+    // Sendfile bytes are counted when handed to Tomcat, so aborted transfers are included
+    private void countDownloaded(String transfer, long bytes) {
+        meterRegistry.counter("media.download.bytes", "transfer", transfer).increment(bytes);
+    }
+
+    private void transfer(FileChannel channel, long position, long count, WritableByteChannel target) throws IOException {
+        long remaining = count;
+        while (remaining > 0) {
+            long written = channel.transferTo(position, remaining, target);
+            if (written <= 0) {
+                break;
+            }
+            position += written;
+            remaining -= written;
+        }
+    }
+
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = parseDate(request.getHeader(HttpHeaders.IF_MODIFIED_SINCE));
+        return ifModifiedSince != -1 && lastModified / 1000 <= ifModifiedSince / 1000;
+    }
+
+    private boolean isIfRangeSatisfied(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            // If-Range requires a strong comparison
+            return ifRange.trim().equals(etag);
+        }
+        long date = parseDate(ifRange);
+        return date != -1 && lastModified / 1000 == date / 1000;
+    }
+
+    private boolean matchesEtag(String header, String etag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) {
+                return true;
+            }
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long parseDate(String value) {
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return -1;
+        }
+    }
+
+    private boolean isHead(HttpServletRequest request) {
+        return "HEAD".equalsIgnoreCase(request.getMethod());
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.movices.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.service.MovieExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Writes the catalog straight from a JDBC cursor to the response. Each row is mapped, written and
+ * detached before the next one is read, so heap use does not grow with the catalog.
+ */
+@Service
+@RequiredArgsConstructor
+public class MovieExportServiceImpl implements MovieExportService {
+
+    private static final int FLUSH_EVERY = 500;
+
+    private final MovieRepository movieRepository;
+    private final MovieMapper movieMapper;
+    private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long export(Format format, Instant since, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        long count = 0;
+        // Flushing is batched below instead of after every row
+        ObjectWriter writer = objectMapper.writerFor(MovieResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Movie> movies = since == null ? movieRepository.streamAll() : movieRepository.streamUpdatedSince(since);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            if (format == Format.JSON) {
+                generator.writeStartArray();
+            }
+            // Send headers and the first bytes before the first row is fetched
+            generator.flush();
+
+            Iterator<Movie> iterator = movies.iterator();
+            while (iterator.hasNext()) {
+                Movie movie = iterator.next();
+                writer.writeValue(generator, movieMapper.toResponse(movie));
+                if (format == Format.NDJSON) {
+                    generator.writeRaw('\n');
+                }
+                entityManager.detach(movie);
+                if (++count % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+
+            if (format == Format.JSON) {
+                generator.writeEndArray();
+            }
+            generator.flush();
+        } finally {
+            meterRegistry.timer("movies.export.duration", "format", format.name().toLowerCase())
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            meterRegistry.counter("movies.export.rows").increment(count);
+        }
+        return count;
+    }
+}
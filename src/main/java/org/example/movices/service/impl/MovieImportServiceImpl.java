@@ -0,0 +1,362 @@
+package org.example.movices.service.impl;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.config.CatalogVersion;
+import org.example.movices.dto.request.MovieImportRow;
+import org.example.movices.dto.response.MovieImportResponse;
+import org.example.movices.dto.response.MovieImportResult;
+import org.example.movices.dto.response.MovieImportResult.Status;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.exception.BadRequestException;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.service.GenreService;
+import org.example.movices.service.MediaStorageService;
+import org.example.movices.service.MovieImportService;
+import org.example.movices.util.CsvReader;
+import org.example.movices.util.DateUtils;
+import org.example.movices.util.MediaKeys;
+import org.example.movices.util.MovieFieldParser;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bulk catalog import. Rows are parsed as they stream in and handled in chunks. Each chunk
+ * checks duplicate titles with one IN query and inserts the rest as a single JDBC batch that
+ * bypasses Hibernate, since IDENTITY ids rule out Hibernate's own insert batching. When a batch
+ * fails, its transaction is rolled back and the chunk is retried row by row, so every row gets
+ * its own result.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MovieImportServiceImpl implements MovieImportService {
+
+    private static final String INSERT_SQL = "INSERT INTO movies "
+            + "(title, description, director, released_on, rating_value, thumbnail_image, video, updated_at, "
+            + "title_normalized, description_normalized, version, status) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 'READY')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MediaStorageService mediaStorageService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final CatalogVersion catalogVersion;
+    private final GenreService genreService;
+
+    @Value("${movies.import.batch-size:1000}")
+    private int batchSize;
+
+    private static final String INSERT_GENRE_SQL = "INSERT INTO movie_genres (movie_id, genre_id) VALUES (?, ?)";
+
+    // A validated row, already converted to typed columns
+    private record PendingRow(long line, Movie movie, Set<String> genreNames) {
+    }
+
+    @Override
+    public MovieImportResponse importMovies(Format format, InputStream content) throws IOException {
+        long start = System.nanoTime();
+        List<MovieImportResult> results = new ArrayList<>();
+        Set<String> seenTitles = new HashSet<>();
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        if (format == Format.CSV) {
+            readCsv(reader, chunk, results, seenTitles);
+        } else {
+            readNdjson(reader, chunk, results, seenTitles);
+        }
+        flush(chunk, results, seenTitles);
+
+        long elapsed = System.nanoTime() - start;
+        meterRegistry.timer("movies.import.duration", "format", format.name().toLowerCase())
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        results.sort(Comparator.comparingLong(MovieImportResult::getLine));
+        return new MovieImportResponse(results.size(),
+                count(results, Status.CREATED), count(results, Status.DUPLICATE),
+                count(results, Status.INVALID), count(results, Status.FAILED),
+                TimeUnit.NANOSECONDS.toMillis(elapsed), results);
+    }
+
+    private void readCsv(BufferedReader reader, List<PendingRow> chunk, List<MovieImportResult> results,
+                         Set<String> seenTitles) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            throw new BadRequestException("CSV import needs a header row");
+        }
+        List<String> columns = header.stream()
+                .map(name -> name.replace("_", "").trim().toLowerCase())
+                .toList();
+        if (!columns.contains("title")) {
+            throw new BadRequestException("CSV header must contain a title column");
+        }
+
+        long line = csv.getLine();
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            MovieImportRow row = new MovieImportRow();
+            for (int i = 0; i < columns.size() && i < record.size(); i++) {
+                String value = record.get(i).isEmpty() ? null : record.get(i);
+                switch (columns.get(i)) {
+                    case "title" -> row.setTitle(value);
+                    case "description" -> row.setDescription(value);
+                    case "director" -> row.setDirector(value);
+                    case "releasedate" -> row.setReleaseDate(value);
+                    case "rating" -> row.setRating(value);
+                    case "genre" -> row.setGenre(value);
+                    case "thumbnailimage" -> row.setThumbnailImage(value);
+                    case "video" -> row.setVideo(value);
+                    default -> {
+                        // Unknown columns are ignored
+                    }
+                }
+            }
+            accept(line, row, chunk, results, seenTitles);
+            line = csv.getLine();
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, List<PendingRow> chunk, List<MovieImportResult> results,
+                            Set<String> seenTitles) throws IOException {
+        ObjectReader rowReader = objectMapper.readerFor(MovieImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        long line = 0;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) {
+                continue;
+            }
+            MovieImportRow row;
+            try {
+                row = rowReader.readValue(text);
+            } catch (IOException e) {
+                results.add(new MovieImportResult(line, null, Status.INVALID, null, "Malformed JSON"));
+                continue;
+            }
+            accept(line, row, chunk, results, seenTitles);
+        }
+    }
+
+    private void accept(long line, MovieImportRow row, List<PendingRow> chunk, List<MovieImportResult> results,
+                        Set<String> seenTitles) {
+        String problem = validate(row);
+        if (problem != null) {
+            results.add(new MovieImportResult(line, row.getTitle(), Status.INVALID, null, problem));
+            return;
+        }
+        row.setTitle(row.getTitle().trim());
+        Movie movie;
+        Set<String> genreNames;
+        try {
+            movie = toMovie(row);
+            genreNames = MovieFieldParser.parseGenres(row.getGenre());
+        } catch (IllegalArgumentException e) {
+            results.add(new MovieImportResult(line, row.getTitle(), Status.INVALID, null, e.getMessage()));
+            return;
+        }
+        // The title column's collation is case-insensitive, so duplicates are too
+        if (!seenTitles.add(row.getTitle().toLowerCase())) {
+            results.add(new MovieImportResult(line, row.getTitle(), Status.DUPLICATE, null, "Title repeated in this import"));
+            return;
+        }
+        chunk.add(new PendingRow(line, movie, genreNames));
+        if (chunk.size() >= batchSize) {
+            flush(chunk, results, seenTitles);
+        }
+    }
+
+    private String validate(MovieImportRow row) {
+        if (row.getTitle() == null || row.getTitle().isBlank()) {
+            return "Movie title required";
+        }
+        if (row.getTitle().trim().length() > 200) {
+            return "Title is longer than 200 characters";
+        }
+        if (row.getDescription() != null && row.getDescription().length() > 500) {
+            return "Description is longer than 500 characters";
+        }
+        // Only blobs already in the content-addressed store can be referenced, never arbitrary paths
+        if (row.getVideo() != null && (!MediaKeys.isContentKey(row.getVideo()) || !mediaStorageService.exists(row.getVideo()))) {
+            return "Unknown video key: " + row.getVideo();
+        }
+        if (row.getThumbnailImage() != null
+                && (!MediaKeys.isContentKey(row.getThumbnailImage()) || !mediaStorageService.exists(row.getThumbnailImage()))) {
+            return "Unknown thumbnail key: " + row.getThumbnailImage();
+        }
+        return null;
+    }
+
+    private void flush(List<PendingRow> chunk, List<MovieImportResult> results, Set<String> seenTitles) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> existing = existingTitles(chunk);
+        List<PendingRow> inserts = new ArrayList<>(chunk.size());
+        for (PendingRow pending : chunk) {
+            if (existing.contains(pending.movie().getTitle().toLowerCase())) {
+                results.add(new MovieImportResult(pending.line(), pending.movie().getTitle(), Status.DUPLICATE, null,
+                        "Movie with this title already exists"));
+            } else {
+                inserts.add(pending);
+            }
+        }
+        chunk.clear();
+        if (inserts.isEmpty()) {
+            return;
+        }
+        assignGenres(inserts);
+
+        List<Movie> created;
+        try {
+            created = transactionTemplate.execute(status -> insertBatch(inserts));
+        } catch (DataAccessException e) {
+            log.warn("Import batch of {} rows failed, retrying row by row: {}", inserts.size(), e.getMostSpecificCause().getMessage());
+            created = new ArrayList<>();
+            for (PendingRow pending : inserts) {
+                try {
+                    created.addAll(transactionTemplate.execute(status -> insertBatch(List.of(pending))));
+                } catch (DataAccessException rowFailure) {
+                    // Let a later row with the same title through only if this one never made it
+                    seenTitles.remove(pending.movie().getTitle().toLowerCase());
+                    results.add(new MovieImportResult(pending.line(), pending.movie().getTitle(), Status.FAILED, null,
+                            rowFailure.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        Map<String, Long> lines = new HashMap<>();
+        inserts.forEach(pending -> lines.put(pending.movie().getTitle(), pending.line()));
+        for (Movie movie : created) {
+            retainMedia(movie);
+            results.add(new MovieImportResult(lines.get(movie.getTitle()), movie.getTitle(), Status.CREATED, movie.getId(), null));
+            eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.Type.CREATED, movie));
+        }
+        if (!created.isEmpty()) {
+            catalogVersion.bump();
+        }
+    }
+
+    private Set<String> existingTitles(List<PendingRow> chunk) {
+        List<String> titles = chunk.stream().map(pending -> pending.movie().getTitle()).toList();
+        Set<String> existing = new HashSet<>();
+        namedParameterJdbcTemplate.query("SELECT title FROM movies WHERE title IN (:titles)",
+                new MapSqlParameterSource("titles", titles),
+                rs -> {
+                    existing.add(rs.getString(1).toLowerCase());
+                });
+        return existing;
+    }
+
+    private List<Movie> insertBatch(List<PendingRow> rows) {
+        Timestamp now = Timestamp.from(Instant.now());
+        return jdbcTemplate.execute((Connection connection) -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                List<Movie> movies = new ArrayList<>(rows.size());
+                for (PendingRow pending : rows) {
+                    Movie movie = pending.movie();
+                    movie.normalizeSearchColumns();
+                    statement.setString(1, movie.getTitle());
+                    statement.setString(2, movie.getDescription());
+                    statement.setString(3, movie.getDirector());
+                    statement.setObject(4, movie.getReleaseDate(), Types.DATE);
+                    statement.setBigDecimal(5, movie.getRating());
+                    statement.setString(6, movie.getThumbnailImage());
+                    statement.setString(7, movie.getVideo());
+                    statement.setTimestamp(8, now);
+                    statement.setString(9, movie.getTitleNormalized());
+                    statement.setString(10, movie.getDescriptionNormalized());
+                    statement.addBatch();
+                    movie.setUpdatedAt(now.toInstant());
+                    movies.add(movie);
+                }
+                statement.executeBatch();
+                // Generated keys come back in insert order
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Movie movie : movies) {
+                        if (!keys.next()) {
+                            throw new SQLException("Driver returned fewer generated keys than inserted rows");
+                        }
+                        movie.setId(keys.getLong(1));
+                    }
+                }
+                insertGenres(movies);
+                return movies;
+            }
+        });
+    }
+
+    // One lookup per batch; genres a row names that don't exist yet are created
+    private void assignGenres(List<PendingRow> rows) {
+        Set<String> names = new HashSet<>();
+        rows.forEach(pending -> names.addAll(pending.genreNames()));
+        Map<String, Genre> genres = new HashMap<>();
+        genreService.resolve(names).forEach(genre -> genres.put(genre.getName().toLowerCase(), genre));
+        for (PendingRow pending : rows) {
+            Set<Genre> movieGenres = new HashSet<>();
+            pending.genreNames().forEach(name -> movieGenres.add(genres.get(name.toLowerCase())));
+            pending.movie().setGenres(movieGenres);
+        }
+    }
+
+    private void insertGenres(List<Movie> movies) {
+        List<Object[]> links = new ArrayList<>();
+        for (Movie movie : movies) {
+            movie.getGenres().forEach(genre -> links.add(new Object[]{movie.getId(), genre.getId()}));
+        }
+        if (!links.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_GENRE_SQL, links);
+        }
+    }
+
+    private Movie toMovie(MovieImportRow row) {
+        Movie movie = new Movie();
+        movie.setTitle(row.getTitle());
+        movie.setDescription(row.getDescription());
+        movie.setDirector(row.getDirector());
+        movie.setReleaseDate(DateUtils.parseReleaseDate(row.getReleaseDate()));
+        movie.setRating(MovieFieldParser.parseRating(row.getRating()));
+        movie.setThumbnailImage(row.getThumbnailImage());
+        movie.setVideo(row.getVideo());
+        return movie;
+    }
+
+    // Imported rows point at media that is already stored, so each reference is counted
+    private void retainMedia(Movie movie) {
+        if (movie.getThumbnailImage() != null) {
+            mediaStorageService.retain(movie.getThumbnailImage());
+        }
+        if (movie.getVideo() != null) {
+            mediaStorageService.retain(movie.getVideo());
+        }
+    }
+
+    private long count(List<MovieImportResult> results, Status status) {
+        return results.stream().filter(result -> result.getStatus() == status).count();
+    }
+}
@@ -1,113 +1,312 @@
 package org.example.movices.service.impl;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.example.movices.config.CacheConfig;
+import org.example.movices.config.CatalogVersion;
+import org.example.movices.dto.request.MoviePageRequest;
 import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.MoviePageResponse;
 import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.MovieSuggestion;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.exception.BadRequestException;
 import org.example.movices.exception.DuplicateResourceException;
+import org.example.movices.exception.PayloadTooLargeException;
 import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Genre;
 import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieSortField;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieKeysetQuery;
 import org.example.movices.repository.MovieRepository;
+import org.example.movices.search.MovieSearchIndex;
+import org.example.movices.search.TextAnalyzer;
+import org.example.movices.search.TitleSuggester;
+import org.example.movices.util.MediaKeys;
+import org.example.movices.util.MovieFieldParser;
+import org.example.movices.service.GenreService;
+import org.example.movices.service.MediaStorageService;
 import org.example.movices.service.MovieService;
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.io.Resource;
-import org.springframework.core.io.UrlResource;
-import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.net.MalformedURLException;
-import java.nio.file.*;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MovieServiceImpl implements MovieService {
 
+    private static final long MAX_IMAGE_BYTES = 2 * 1024 * 1024;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SEARCH_WINDOW = 1000;
+
     private final MovieRepository movieRepository;
-    private final ModelMapper modelMapper;
+    private final MovieMapper movieMapper;
+    private final MeterRegistry meterRegistry;
+    private final MediaStorageService mediaStorageService;
+    private final MovieSearchIndex movieSearchIndex;
+    private final TitleSuggester titleSuggester;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CatalogVersion catalogVersion;
+    private final GenreService genreService;
+
+    @Value("${movies.upload.max-video-bytes:2097152000}")
+    private long maxVideoBytes;
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    @Value("${search.max-results:50}")
+    private int maxSearchResults;
 
 
     @Override
-    public MovieResponse createMovieWithFile(MovieRequest movieRequest, MultipartFile video, MultipartFile photo) {
-        try {
+    public MovieResponse createPendingMovie(MovieRequest movieRequest) {
+        if (movieRequest == null) {
+            throw new ResourceNotFoundException("Movie request cannot be null");
+        }
+        if (movieRequest.getTitle() == null || movieRequest.getTitle().trim().isEmpty()) {
+            throw new ResourceNotFoundException("Movie title required");
+        }
+        if (movieRepository.existsByTitle(movieRequest.getTitle())) {
+            throw new DuplicateResourceException("Movie with title '" + movieRequest.getTitle() + "' already exists");
+        }
 
-            if(movieRequest == null){
-                throw new ResourceNotFoundException("Movie request cannot be null");
-            }
-            if(movieRequest.getTitle() == null ||  movieRequest.getTitle().trim().isEmpty()){
-                throw new ResourceNotFoundException("Movie title required");
-            }
-            if (movieRepository.existsByTitle(movieRequest.getTitle())) {
-                throw new DuplicateResourceException("Movie with title '" + movieRequest.getTitle() + "' already exists");            }
+        // Holds the title while the upload job runs; listeners hear about the movie once it is READY
+        Movie movie = toMovie(movieRequest);
+        movie.setStatus(MovieStatus.PENDING);
+        return movieMapper.toResponse(movieRepository.save(movie));
+    }
 
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id")
+    public MovieResponse completePendingMovie(Long id, String videoKey, String thumbnailKey, Integer durationSeconds) {
+        Movie movie = movieRepository.findById(id).orElse(null);
+        // Completed by an earlier attempt of the same job, which then failed to record it
+        if (movie != null && movie.getStatus() == MovieStatus.READY && Objects.equals(movie.getVideo(), videoKey)) {
+            return movieMapper.toResponse(movie);
+        }
+        // The caller still owns the keys and releases them
+        if (movie == null || movie.getStatus() != MovieStatus.PENDING) {
+            throw new ResourceNotFoundException("No pending movie with id: " + id);
+        }
+        movie.setVideo(videoKey);
+        movie.setThumbnailImage(thumbnailKey);
+        movie.setDurationSeconds(durationSeconds);
+        movie.setStatus(MovieStatus.READY);
+        return movieMapper.toResponse(insertMovie(movie));
+    }
 
-            // Convert Request to Entity
-            Movie movie = modelMapper.map(movieRequest, Movie.class);
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id")
+    public void discardPendingMovie(Long id) {
+        movieRepository.findById(id)
+                .filter(movie -> movie.getStatus() == MovieStatus.PENDING)
+                .ifPresent(movieRepository::delete);
+    }
 
-            // Handle thumbnail image upload (optional)
-            if (photo != null && !photo.isEmpty()) {
-               validImageFile(photo);
-                String thumbnailFileName = generateFileName(photo.getOriginalFilename());
-                Path thumbnailPath = uploadPath.resolve(thumbnailFileName);
-                Files.copy(photo.getInputStream(), thumbnailPath);
-                movie.setThumbnailImage(thumbnailFileName);
-            }
+    @Override
+    public MovieResponse createMovieFromStream(MovieRequest movieRequest, InputStream video, String originalFilename, String contentType, long contentLength) {
+        if (movieRequest == null) {
+            throw new ResourceNotFoundException("Movie request cannot be null");
+        }
+        if (movieRequest.getTitle() == null || movieRequest.getTitle().trim().isEmpty()) {
+            throw new ResourceNotFoundException("Movie title required");
+        }
+        if (contentType == null || !(contentType.startsWith("video/") || contentType.startsWith("application/octet-stream"))) {
+            throw new ResourceNotFoundException("Invalid video file type");
+        }
+        if (contentLength > maxVideoBytes) {
+            throw new PayloadTooLargeException("Video file size must be less than " + maxVideoBytes + " bytes");
+        }
+        if (movieRepository.existsByTitle(movieRequest.getTitle())) {
+            throw new DuplicateResourceException("Movie with title '" + movieRequest.getTitle() + "' already exists");
+        }
 
-            // Handle video file upload (required)
-            if (video != null && !video.isEmpty()) {
-                validVideoFile(video);
-                String videoFileName = generateFileName(video.getOriginalFilename());
-                Path videoPath = uploadPath.resolve(videoFileName);
-                Files.copy(video.getInputStream(), videoPath);
-                movie.setVideo(videoFileName);
-            } else {
-                throw new RuntimeException("Video file is required");
-            }
+        Movie movie = toMovie(movieRequest);
+        long start = System.nanoTime();
+        MediaStorageService.StoredMedia stored = mediaStorageService.store(video, MediaKeys.extensionOf(originalFilename), maxVideoBytes);
+        recordUpload(stored.size(), System.nanoTime() - start);
 
-            // Save to database
-            Movie savedMovie = movieRepository.save(movie);
+        movie.setVideo(stored.key());
+        return movieMapper.toResponse(insertMovie(movie));
+    }
 
-            // Convert Entity to Response and return
-            return modelMapper.map(savedMovie, MovieResponse.class);
+    private Movie toMovie(MovieRequest movieRequest) {
+        Movie movie = movieMapper.toEntity(movieRequest);
+        movie.setGenres(resolveGenres(movieRequest.getGenre()));
+        return movie;
+    }
 
-        } catch (IOException e) {
-            throw new ResourceNotFoundException("Failed to store files: " + e.getMessage(), e);
-        }catch (DataIntegrityViolationException e) {
+    private Set<Genre> resolveGenres(String genre) {
+        try {
+            return genreService.resolve(MovieFieldParser.parseGenres(genre));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(e.getMessage());
+        }
+    }
+
+    private MediaStorageService.StoredMedia storeFile(MultipartFile file, long maxBytes) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return mediaStorageService.store(in, MediaKeys.extensionOf(file.getOriginalFilename()), maxBytes);
+        }
+    }
+
+    private Movie insertMovie(Movie movie) {
+        try {
+            Movie savedMovie = movieRepository.save(movie);
+            eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.Type.CREATED, savedMovie));
+            catalogVersion.bump();
+            return savedMovie;
+        } catch (RuntimeException e) {
+            // The row never made it, so drop the references taken for its media
+            mediaStorageService.release(movie.getThumbnailImage());
+            mediaStorageService.release(movie.getVideo());
             throw e;
-        }catch (Exception e) {
-            throw new RuntimeException("Failed to store files: " + e.getMessage(), e);
         }
     }
+
+    private void recordUpload(long bytes, long elapsedNanos) {
+        meterRegistry.counter("movies.upload.bytes").increment(bytes);
+        meterRegistry.timer("movies.upload.duration").record(elapsedNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("movies.upload.throughput")
+                .baseUnit("bytes/s")
+                .register(meterRegistry)
+                .record(elapsedNanos == 0 ? bytes : bytes * 1_000_000_000d / elapsedNanos);
+    }
+
     @Override
+    @Cacheable(cacheNames = CacheConfig.MOVIES, key = "#id")
     public MovieResponse getMovieById(Long id) {
+        // A PENDING movie is not part of the catalog until its upload job completes it
         Movie movie = movieRepository.findById(id)
+                .filter(found -> found.getStatus() != MovieStatus.PENDING)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
-        return modelMapper.map(movie, MovieResponse.class);
+        return movieMapper.toResponse(movie);
     }
 
     @Override
+    // Keyed by the catalog version read before the query, so a list loaded before a commit is never served under its bump
+    @Cacheable(cacheNames = CacheConfig.MOVIE_LIST, key = "@catalogVersion.current().version()", sync = true)
     public List<MovieResponse> getAllMovies() {
-        List<Movie> movies = movieRepository.findAll();
-        return movies.stream()
-                .map(movie -> modelMapper.map(movie, MovieResponse.class))
-                .collect(Collectors.toList());
+        List<Movie> movies = movieRepository.findByStatus(MovieStatus.READY);
+        // Cached as-is, so hand out an immutable snapshot
+        return List.copyOf(movieMapper.toResponses(movies));
+    }
+
+    @Override
+    public MoviePageResponse getMoviePage(MoviePageRequest pageRequest) {
+        MovieSortField sortField = parseSortField(pageRequest.getSort());
+        boolean ascending = pageRequest.getDirection() == null || !pageRequest.getDirection().equalsIgnoreCase("desc");
+        int size = pageRequest.getSize() == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(pageRequest.getSize(), MAX_PAGE_SIZE));
+
+        MovieKeysetQuery.MovieKeysetQueryBuilder query = MovieKeysetQuery.builder()
+                .sortField(sortField)
+                .ascending(ascending)
+                .genre(pageRequest.getGenre())
+                .director(pageRequest.getDirector())
+                .minRating(pageRequest.getMinRating() == null ? null : BigDecimal.valueOf(pageRequest.getMinRating()))
+                .maxRating(pageRequest.getMaxRating() == null ? null : BigDecimal.valueOf(pageRequest.getMaxRating()))
+                .releasedFrom(pageRequest.getFromYear() == null ? null : startOfYear(pageRequest.getFromYear()))
+                .releasedBefore(pageRequest.getToYear() == null ? null : startOfYear(pageRequest.getToYear()).plusYears(1))
+                .limit(size + 1);
+        if (pageRequest.getCursor() != null && !pageRequest.getCursor().isEmpty()) {
+            decodeCursor(pageRequest.getCursor(), sortField, ascending, query);
+        }
+
+        // One extra row tells us whether there is a next page without a count query
+        List<Movie> movies = movieRepository.findPage(query.build());
+        boolean hasNext = movies.size() > size;
+        if (hasNext) {
+            movies = movies.subList(0, size);
+        }
+        String nextCursor = hasNext ? encodeCursor(movies.get(movies.size() - 1), sortField, ascending) : null;
+
+        List<MovieResponse> content = movieMapper.toResponses(movies);
+        return new MoviePageResponse(content, content.size(), hasNext, nextCursor);
+    }
+
+    private LocalDate startOfYear(int year) {
+        if (year < 1 || year > 9999) {
+            throw new BadRequestException("Year out of range: " + year);
+        }
+        return LocalDate.of(year, 1, 1);
+    }
+
+    private MovieSortField parseSortField(String sort) {
+        if (sort == null || sort.isEmpty()) {
+            return MovieSortField.TITLE;
+        }
+        for (MovieSortField field : MovieSortField.values()) {
+            if (field.getProperty().equalsIgnoreCase(sort) || field.name().equalsIgnoreCase(sort)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unsupported sort field: " + sort);
+    }
+
+    private String encodeCursor(Movie last, MovieSortField sortField, boolean ascending) {
+        Object value = sortValue(last, sortField);
+        String token = sortField.name() + "|" + (ascending ? "A" : "D") + "|" + last.getId() + "|"
+                + (value == null ? "" : "v" + value);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void decodeCursor(String cursor, MovieSortField sortField, boolean ascending,
+                              MovieKeysetQuery.MovieKeysetQueryBuilder query) {
+        try {
+            String token = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = token.split("\\|", 4);
+            if (parts.length != 4 || !parts[0].equals(sortField.name()) || !parts[1].equals(ascending ? "A" : "D")) {
+                throw new BadRequestException("Cursor does not match the requested sort order");
+            }
+            query.afterId(Long.parseLong(parts[2]));
+            if (!parts[3].isEmpty()) {
+                String raw = parts[3].substring(1);
+                query.afterValue(switch (sortField) {
+                    case RATING -> new BigDecimal(raw);
+                    case RELEASE_DATE -> LocalDate.parse(raw);
+                    default -> raw;
+                });
+            }
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new BadRequestException("Invalid cursor");
+        }
+    }
+
+    private Object sortValue(Movie movie, MovieSortField sortField) {
+        switch (sortField) {
+            case RELEASE_DATE:
+                return movie.getReleaseDate();
+            case RATING:
+                return movie.getRating() == null ? null : movie.getRating().toPlainString();
+            default:
+                return movie.getTitle();
+        }
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id")
     public MovieResponse updateMovie(Long id, MovieRequest movieRequest, MultipartFile video, MultipartFile photo) {
         try {
+            // A PENDING movie belongs to its upload job, which completes or discards it
             Movie existingMovie = movieRepository.findById(id)
+                    .filter(movie -> movie.getStatus() != MovieStatus.PENDING)
                     .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
             if (movieRequest.getTitle() != null &&
                 !movieRequest.getTitle().equals(existingMovie.getTitle()) &&
@@ -116,56 +315,35 @@ public class MovieServiceImpl implements MovieService {
                 throw new DuplicateResourceException("Movie with title '" + movieRequest.getTitle() + "' already exists");
             }
 
-            Path uploadPath = Paths.get(uploadDir);
-            if (!Files.exists(uploadPath)){
-                Files.createDirectories(uploadPath);
+            movieMapper.updateEntity(movieRequest, existingMovie);
+            if (movieRequest.getGenre() != null) {
+                existingMovie.setGenres(resolveGenres(movieRequest.getGenre()));
             }
 
-            if (movieRequest.getTitle() != null ){
-                existingMovie.setTitle(movieRequest.getTitle());
-            }
-            if (movieRequest.getDescription() != null){
-                existingMovie.setDescription(movieRequest.getDescription());
-            }
-            if(movieRequest.getDirector() != null){
-                existingMovie.setDirector(movieRequest.getDirector());
-            }
-            if(movieRequest.getReleaseDate() != null){
-                existingMovie.setReleaseDate(movieRequest.getReleaseDate());
-            }
-            if (movieRequest.getGenre() != null){
-                existingMovie.setGenre(movieRequest.getGenre());
-            }
-            if (movieRequest.getRating() != null){
-                existingMovie.setRating(movieRequest.getRating());
-            }
+            String oldThumbnail = existingMovie.getThumbnailImage();
+            String oldVideo = existingMovie.getVideo();
 
             if (photo != null && !photo.isEmpty()) {
                 validImageFile(photo);
-                if (existingMovie.getThumbnailImage() != null ){
-                    Path oldThumbnailPath = uploadPath.resolve(existingMovie.getThumbnailImage());
-                    Files.deleteIfExists(oldThumbnailPath);
-                }
-                String thumbnailFileName = generateFileName(photo.getOriginalFilename());
-                Path thumbnailPath = uploadPath.resolve(thumbnailFileName);
-                Files.copy(photo.getInputStream(), thumbnailPath);
-                existingMovie.setThumbnailImage(thumbnailFileName);
+                existingMovie.setThumbnailImage(storeFile(photo, MAX_IMAGE_BYTES).key());
             }
 
             if (video != null && !video.isEmpty()) {
                 validVideoFile(video);
-                if (existingMovie.getVideo() != null){
-                    Path oldVideoPath = uploadPath.resolve(existingMovie.getVideo());
-                    Files.deleteIfExists(oldVideoPath);
-                }
-                String videoFileName = generateFileName(video.getOriginalFilename());
-                Path videoPath = uploadPath.resolve(videoFileName);
-                Files.copy(video.getInputStream(), videoPath);
-                existingMovie.setVideo(videoFileName);
-
+                existingMovie.setVideo(storeFile(video, maxVideoBytes).key());
             }
             Movie updateMovie = movieRepository.save(existingMovie);
-            return modelMapper.map(updateMovie, MovieResponse.class);
+            eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.Type.UPDATED, updateMovie));
+            catalogVersion.bump();
+
+            // Old media is only dropped once the row points at the replacement
+            if (!Objects.equals(oldThumbnail, updateMovie.getThumbnailImage())) {
+                mediaStorageService.release(oldThumbnail);
+            }
+            if (!Objects.equals(oldVideo, updateMovie.getVideo())) {
+                mediaStorageService.release(oldVideo);
+            }
+            return movieMapper.toResponse(updateMovie);
 
         }catch (ResourceNotFoundException e) {
             throw new ResourceNotFoundException("Movie not found with id: " + id);
@@ -174,62 +352,37 @@ public class MovieServiceImpl implements MovieService {
         }
     }
 
-//    @Override
-//    public MovieResponse updateMovie(Long id, MovieRequest movieRequest) {
-//        Movie existingMovie = movieRepository.findById(id)
-//                .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
-//
-//        modelMapper.map(movieRequest, existingMovie);
-//
-//        existingMovie = movieRepository.save(existingMovie);
-//        return modelMapper.map(existingMovie, MovieResponse.class);
-//    }
-
     @Override
+    @CacheEvict(cacheNames = CacheConfig.MOVIES, key = "#id")
     public void deleteMovie(Long id) {
         Movie movie = movieRepository.findById(id)
+                .filter(found -> found.getStatus() != MovieStatus.PENDING)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
         if (!movieRepository.existsById(id)) {
             throw new ResourceNotFoundException("Movie not found with id: " + id);
         }
-        try {
-            if (movie.getThumbnailImage() != null && !movie.getThumbnailImage().isEmpty()) {
-                Files.deleteIfExists(Paths.get(uploadDir,movie.getThumbnailImage()));
-            }
-            if (movie.getVideo() != null && !movie.getVideo().isEmpty()) {
-                Files.deleteIfExists(Paths.get(uploadDir,movie.getVideo()));
-            }
-        }catch (IOException e) {
-            throw new RuntimeException("Failed to delete file: " + e.getMessage(), e);
-        }
-
         movieRepository.deleteById(id);
+        eventPublisher.publishEvent(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie));
+        catalogVersion.bump();
+
+        // Blobs shared with other movies stay until their last reference goes
+        mediaStorageService.release(movie.getThumbnailImage());
+        mediaStorageService.release(movie.getVideo());
     }
 
     @Override
     public Resource downloadMovie(Long id) {
         Movie movie = movieRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Movie not found with id: " + id));
-        if (movie.getVideo() != null && !movie.getVideo().isEmpty()) {
+        if (movie.getVideo() == null || movie.getVideo().isEmpty()) {
             throw new ResourceNotFoundException("No video file associated with this movie");
         }
 
-        try {
-            Path filePath = Paths.get(uploadDir).resolve(movie.getVideo()).normalize();
-            Resource resource = new UrlResource(filePath.toUri());
-
-            if (!resource.exists()) {
-                throw new ResourceNotFoundException("Video file not found on server");
-            }
-            if (!resource.isReadable()) {
-                throw new RuntimeException("Video file is not readable (permission issue)");
-            }
-
-            return resource;
-
-        } catch (MalformedURLException e) {
-            throw new RuntimeException("Error: " + e.getMessage(), e);
+        Resource resource = mediaStorageService.load(movie.getVideo());
+        if (!resource.isReadable()) {
+            throw new RuntimeException("Video file is not readable (permission issue)");
         }
+        return resource;
     }
 
     @Override
@@ -243,8 +396,14 @@ public class MovieServiceImpl implements MovieService {
             return Collections.emptyList();
         }
         String searchQuery = query.trim();
-        List<Movie> movies;
+        if (movieSearchIndex.isReady()) {
+            return exactMatch
+                    ? movieSearchIndex.searchTitle(searchQuery, maxSearchResults)
+                    : movieSearchIndex.search(searchQuery, maxSearchResults);
+        }
 
+        // The index is still being built at startup; fall back to the database
+        List<Movie> movies;
         try {
             if (exactMatch) {
                 movies = findExactMatchMovies(query);
@@ -257,36 +416,34 @@ public class MovieServiceImpl implements MovieService {
         }
     }
 
+    @Override
     public List<MovieResponse> searchReleven(String query) {
+        return searchReleven(query, 0, maxSearchResults);
+    }
+
+    @Override
+    public List<MovieResponse> searchReleven(String query, int page, int size) {
+        int pageSize = Math.max(1, Math.min(size, maxSearchResults));
+        if (page < 0 || (long) (page + 1) * pageSize > MAX_SEARCH_WINDOW) {
+            throw new BadRequestException("Search results are limited to the first " + MAX_SEARCH_WINDOW + " matches");
+        }
         if (query == null || query.trim().isEmpty()) {
-            return getAllMovies();
+            MoviePageRequest firstPage = new MoviePageRequest();
+            firstPage.setSize(pageSize);
+            return page == 0 ? getMoviePage(firstPage).getContent() : Collections.emptyList();
         }
         String searchQuery = query.trim();
-        List<Movie> allMovies = movieRepository.searchMovie(searchQuery);
-
-        List<Movie> weightResult = new ArrayList<>();
-
-        List<Movie> exracTitleMatches = allMovies.stream()
-                .filter(movie -> movie.getTitle().equalsIgnoreCase(searchQuery))
-                .collect(Collectors.toList());
-        weightResult.addAll(exracTitleMatches);
-
-
-        List<Movie> titleContainMatch = allMovies.stream()
-                .filter(movie -> movie.getTitle().toLowerCase().contains(searchQuery.toLowerCase()))
-                .filter(movie -> !exracTitleMatches.contains(movie))
-                .collect(Collectors.toList());
-
-        weightResult.addAll(titleContainMatch);
-
-        List<Movie> otherMathc = allMovies.stream()
-                .filter(movie -> !weightResult.contains(movie))
-                .collect(Collectors.toList());
-        weightResult.addAll(otherMathc);
+        if (movieSearchIndex.isReady()) {
+            List<MovieResponse> top = movieSearchIndex.searchRelevant(searchQuery, (page + 1) * pageSize);
+            return top.size() <= page * pageSize ? Collections.emptyList() : top.subList(page * pageSize, top.size());
+        }
 
-        return weightResult.stream()
-                .map(movie -> modelMapper.map(movie,MovieResponse.class))
-                .collect(Collectors.toList());
+        // Ranking and the top-k cut happen in the database
+        String normalized = TextAnalyzer.normalize(searchQuery);
+        String escaped = normalized.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+        List<Movie> movies = movieRepository.searchRanked(normalized, escaped + "%", "%" + escaped + "%",
+                PageRequest.of(page, pageSize));
+        return movieMapper.toResponses(movies);
     }
 
     private void  validImageFile(MultipartFile file) {
@@ -297,7 +454,7 @@ public class MovieServiceImpl implements MovieService {
         if (contentType == null || !isValidImageType(contentType)) {
             throw new ResourceNotFoundException("Invalid image file type");
         }
-        if (file.getSize() > 2 * 1024 * 1024) {
+        if (file.getSize() > MAX_IMAGE_BYTES) {
             throw new ResourceNotFoundException("Image file size must be less than 5MB");
         }
     }
@@ -323,15 +480,6 @@ public class MovieServiceImpl implements MovieService {
         }
     }
 
-   private String generateFileName(String originalFilename) {
-        String uuid = UUID.randomUUID().toString();
-        String extension = "";
-        if (originalFilename != null && originalFilename.contains(".")){
-            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        }
-        return uuid + extension;
-   }
-
    private List<Movie> findExactMatchMovies(String query) {
         Optional<Movie> exactMovie = movieRepository.findByTitleIgnoreCase(query);
 
@@ -356,9 +504,16 @@ public class MovieServiceImpl implements MovieService {
             return Collections.emptyList();
         }
 
-        return movies.stream()
-                .map(movie -> modelMapper.map(movie,MovieResponse.class))
-                .collect(Collectors.toList());
+        return movieMapper.toResponses(movies.stream()
+                .filter(movie -> movie.getStatus() != MovieStatus.PENDING)
+                .toList());
    }
-}
 
+    @Override
+    public List<MovieSuggestion> suggestTitles(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return Collections.emptyList();
+        }
+        return titleSuggester.suggest(prefix, limit);
+    }
+}
@@ -0,0 +1,264 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.model.entity.enums.ThumbnailVariant;
+import org.example.movices.service.MediaStorageService;
+import org.example.movices.service.ThumbnailService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces resized JPEG variants of movie thumbnails on a small worker pool. Work is queued from
+ * {@link MovieChangedEvent}s so uploads never wait for image processing. Variants live next to each
+ * other under {@code <derivatives-dir>/<source key>/} and, since media keys are content hashes, never
+ * change once written. Variants whose source has been released are swept periodically.
+ */
+@Slf4j
+@Service
+public class ThumbnailServiceImpl implements ThumbnailService {
+
+    private final MediaStorageService mediaStorageService;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Timer generateTimer;
+    private final Path derivativesDir;
+    private final float quality;
+    private final long maxPixels;
+
+    public ThumbnailServiceImpl(MediaStorageService mediaStorageService,
+                                MeterRegistry meterRegistry,
+                                @Value("${media.thumbnails.dir:uploads/derivatives}") String derivativesDir,
+                                @Value("${media.thumbnails.threads:2}") int threads,
+                                @Value("${media.thumbnails.queue-capacity:256}") int queueCapacity,
+                                @Value("${media.thumbnails.jpeg-quality:0.8}") float quality,
+                                @Value("${media.thumbnails.max-pixels:40000000}") long maxPixels) {
+        this.mediaStorageService = mediaStorageService;
+        this.derivativesDir = Paths.get(derivativesDir);
+        this.quality = quality;
+        this.maxPixels = maxPixels;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "thumbnail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.generateTimer = Timer.builder("media.thumbnails.generate").register(meterRegistry);
+        Gauge.builder("media.thumbnails.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.type() != MovieChangedEvent.Type.DELETED) {
+            enqueue(event.movie().getThumbnailImage());
+        }
+    }
+
+    @Override
+    public void enqueue(String sourceKey) {
+        if (sourceKey == null || sourceKey.isEmpty()) {
+            return;
+        }
+        // A generation cut short leaves some variants behind; only a complete set is skipped
+        if (Arrays.stream(ThumbnailVariant.values()).allMatch(variant -> find(sourceKey, variant).isPresent())) {
+            return;
+        }
+        submit(sourceKey, () -> generate(sourceKey));
+    }
+
+    @Override
+    public Optional<Path> find(String sourceKey, ThumbnailVariant variant) {
+        Path path = variantPath(sourceKey, variant);
+        return Files.exists(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public Resource loadOriginal(String sourceKey) {
+        return mediaStorageService.load(sourceKey);
+    }
+
+    // Deduplicated thumbnails can be shared, so derivatives go only once the source itself is gone
+    @Scheduled(fixedDelayString = "${media.thumbnails.sweep-ms:3600000}")
+    public void purgeOrphanedVariants() {
+        if (!Files.isDirectory(derivativesDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> sources = Files.newDirectoryStream(derivativesDir)) {
+            for (Path source : sources) {
+                String key = source.getFileName().toString();
+                if (!pending.contains(key) && !mediaStorageService.exists(key)) {
+                    FileSystemUtils.deleteRecursively(source);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Failed to sweep thumbnails: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void submit(String key, Runnable task) {
+        if (!pending.add(key)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    pending.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Dropped work is picked up again the next time the thumbnail is requested
+            pending.remove(key);
+            log.warn("Thumbnail queue full, skipping {}", key);
+        }
+    }
+
+    private void generate(String key) {
+        generateTimer.record(() -> {
+            try {
+                BufferedImage source;
+                try (InputStream in = mediaStorageService.load(key).getInputStream()) {
+                    source = decode(key, in);
+                }
+                if (source == null) {
+                    return;
+                }
+                // Largest first, each variant scaled down from the previous one
+                BufferedImage current = source;
+                ThumbnailVariant[] variants = ThumbnailVariant.values();
+                for (int i = variants.length - 1; i >= 0; i--) {
+                    current = resize(current, variants[i].getWidth());
+                    write(current, variantPath(key, variants[i]));
+                }
+            } catch (Exception e) {
+                log.warn("Failed to generate thumbnails for {}: {}", key, e.getMessage());
+            }
+        });
+    }
+
+    // Checks the header dimensions before decoding: a small file can declare a huge raster
+    private BufferedImage decode(String key, InputStream in) throws IOException {
+        try (ImageInputStream image = ImageIO.createImageInputStream(in)) {
+            Iterator<ImageReader> readers = image == null ? Collections.emptyIterator() : ImageIO.getImageReaders(image);
+            if (!readers.hasNext()) {
+                log.warn("Thumbnail {} is not a readable image", key);
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(image, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.warn("Thumbnail {} has {} pixels, more than the {} allowed", key, pixels, maxPixels);
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage image, int maxWidth) {
+        int width = Math.min(maxWidth, image.getWidth());
+        int height = Math.max(1, Math.round(image.getHeight() * (width / (float) image.getWidth())));
+
+        // Halve in steps so bilinear sampling does not skip source pixels on large reductions
+        BufferedImage current = image;
+        int currentWidth = image.getWidth();
+        int currentHeight = image.getHeight();
+        do {
+            currentWidth = Math.max(width, currentWidth / 2);
+            currentHeight = Math.max(height, currentHeight / 2);
+            if (currentWidth == width) {
+                currentHeight = height;
+            }
+            BufferedImage next = new BufferedImage(currentWidth, currentHeight, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.setColor(Color.WHITE);
+                graphics.fillRect(0, 0, currentWidth, currentHeight);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    private void write(BufferedImage image, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + "." + UUID.randomUUID() + ".part");
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try {
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(quality);
+                param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(image, null, null), param);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            writer.dispose();
+            // Gone already once moved; left over only when writing or moving failed
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path variantPath(String key, ThumbnailVariant variant) {
+        Path path = derivativesDir.resolve(key).resolve(variant.name().toLowerCase() + ".jpg").normalize();
+        if (!path.startsWith(derivativesDir.normalize())) {
+            throw new IllegalArgumentException("Invalid media key: " + key);
+        }
+        return path;
+    }
+}
@@ -0,0 +1,408 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.UploadJobResponse;
+import org.example.movices.exception.BadRequestException;
+import org.example.movices.exception.PayloadTooLargeException;
+import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.model.entity.UploadJob;
+import org.example.movices.model.entity.enums.UploadJobStatus;
+import org.example.movices.repository.UploadJobRepository;
+import org.example.movices.service.MediaStorageService;
+import org.example.movices.service.MovieService;
+import org.example.movices.service.UploadJobService;
+import org.example.movices.util.MediaKeys;
+import org.example.movices.util.MediaSniffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Accepts uploads without processing them: the files are staged, and a PENDING movie plus an
+ * upload_jobs row are written in one transaction. A small worker pool then checks the files by their
+ * magic bytes, probes the duration, moves them into content-addressed storage (which checksums them)
+ * and flips the movie to READY. The staged files stay until the job finishes, and the stored keys are
+ * recorded on the job, so a retry either stores the files again or completes the movie from the keys. Jobs live in the database, so queued ones survive a restart; a
+ * worker holds a job through a lease, and jobs whose lease runs out are queued again. A job that
+ * fails for good removes its pending movie, freeing the title.
+ */
+@Slf4j
+@Service
+public class UploadJobServiceImpl implements UploadJobService {
+
+    // Staged job files share the staging directory with chunked upload sessions
+    static final String STAGED_PREFIX = "job-";
+    private static final long MAX_IMAGE_BYTES = 2 * 1024 * 1024;
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final UploadJobRepository uploadJobRepository;
+    private final MovieService movieService;
+    private final MediaStorageService mediaStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    // Jobs this instance has claimed and not finished yet
+    private final Set<Long> claimed = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final Timer processTimer;
+    private final Path stagingDir;
+    private final long maxVideoBytes;
+    private final int maxAttempts;
+    private final Duration lease;
+
+    public UploadJobServiceImpl(UploadJobRepository uploadJobRepository,
+                                MovieService movieService,
+                                MediaStorageService mediaStorageService,
+                                TransactionTemplate transactionTemplate,
+                                JdbcTemplate jdbcTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${movies.upload.staging-dir:uploads/staging}") String stagingDir,
+                                @Value("${movies.upload.max-video-bytes:2097152000}") long maxVideoBytes,
+                                @Value("${movies.upload.jobs.threads:2}") int threads,
+                                @Value("${movies.upload.jobs.queue-capacity:16}") int queueCapacity,
+                                @Value("${movies.upload.jobs.max-attempts:3}") int maxAttempts,
+                                @Value("${movies.upload.jobs.lease:PT15M}") Duration lease) {
+        this.uploadJobRepository = uploadJobRepository;
+        this.movieService = movieService;
+        this.mediaStorageService = mediaStorageService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.stagingDir = Paths.get(stagingDir);
+        this.maxVideoBytes = maxVideoBytes;
+        this.maxAttempts = maxAttempts;
+        this.lease = lease;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "upload-job-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.processTimer = Timer.builder("movies.upload.jobs.process").register(meterRegistry);
+        Gauge.builder("movies.upload.jobs.queue", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recover() {
+        dispatch();
+    }
+
+    @Override
+    public UploadJobResponse submit(MovieRequest movieRequest, MultipartFile video, MultipartFile photo) {
+        if (video == null || video.isEmpty()) {
+            throw new BadRequestException("Video file is required");
+        }
+        if (video.getSize() > maxVideoBytes) {
+            throw new PayloadTooLargeException("Video file size must be less than " + maxVideoBytes + " bytes");
+        }
+        boolean hasPhoto = photo != null && !photo.isEmpty();
+        if (hasPhoto && photo.getSize() > MAX_IMAGE_BYTES) {
+            throw new PayloadTooLargeException("Image file size must be less than " + MAX_IMAGE_BYTES + " bytes");
+        }
+
+        Path stagedVideo = null;
+        Path stagedPhoto = null;
+        try {
+            stagedVideo = stage(video);
+            stagedPhoto = hasPhoto ? stage(photo) : null;
+        } catch (IOException e) {
+            deleteStaged(stagedVideo, stagedPhoto);
+            throw new RuntimeException("Failed to stage upload: " + e.getMessage(), e);
+        }
+        return enqueue(movieRequest, stagedVideo, MediaKeys.extensionOf(video.getOriginalFilename()),
+                stagedPhoto, hasPhoto ? MediaKeys.extensionOf(photo.getOriginalFilename()) : null);
+    }
+
+    @Override
+    public UploadJobResponse submit(MovieRequest movieRequest, Path stagedVideo, String originalFilename) {
+        return enqueue(movieRequest, stagedVideo, MediaKeys.extensionOf(originalFilename), null, null);
+    }
+
+    @Override
+    public UploadJobResponse getJob(Long id) {
+        UploadJob job = uploadJobRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("Upload job not found: " + id));
+        UploadJobResponse response = toResponse(job);
+        if (job.getStatus() == UploadJobStatus.SUCCEEDED && job.getMovieId() != null) {
+            try {
+                response.setMovie(movieService.getMovieById(job.getMovieId()));
+            } catch (ResourceNotFoundException e) {
+                // deleted since
+            }
+        }
+        return response;
+    }
+
+    @Scheduled(fixedDelayString = "${movies.upload.jobs.poll-ms:5000}")
+    public void dispatch() {
+        // Submissions call this on the request thread, so never wait for a running pass; whatever it
+        // missed is picked up by the next poll
+        if (!dispatchLock.tryLock()) {
+            return;
+        }
+        try {
+            if (executor.isShutdown()) {
+                return;
+            }
+            Instant now = Instant.now();
+            int requeued = uploadJobRepository.requeueExpired(now);
+            if (requeued > 0) {
+                log.warn("Queued {} upload jobs again after their worker lease expired", requeued);
+            }
+            int free = executor.getQueue().remainingCapacity();
+            if (free == 0) {
+                return;
+            }
+            for (Long id : uploadJobRepository.findIdsByStatus(UploadJobStatus.QUEUED, PageRequest.of(0, free))) {
+                // Lost the race to another instance
+                if (uploadJobRepository.claim(id, now.plus(lease), now) == 0) {
+                    continue;
+                }
+                claimed.add(id);
+                try {
+                    executor.execute(() -> run(id));
+                } catch (RejectedExecutionException e) {
+                    claimed.remove(id);
+                    uploadJobRepository.release(id, now);
+                    break;
+                }
+            }
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+        // Hand unfinished jobs back now instead of leaving them to wait out their lease
+        for (Long id : claimed) {
+            try {
+                uploadJobRepository.release(id, Instant.now());
+            } catch (DataAccessException e) {
+                log.warn("Upload job {} stays claimed until its lease expires: {}", id, e.getMessage());
+            }
+        }
+    }
+
+    private UploadJobResponse enqueue(MovieRequest movieRequest, Path video, String videoExtension,
+                                      Path photo, String photoExtension) {
+        UploadJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                MovieResponse movie = movieService.createPendingMovie(movieRequest);
+                Instant now = Instant.now();
+                UploadJob created = new UploadJob();
+                created.setMovieId(movie.getId());
+                created.setStatus(UploadJobStatus.QUEUED);
+                created.setVideoPath(video.toAbsolutePath().toString());
+                created.setVideoExtension(videoExtension);
+                created.setPhotoPath(photo == null ? null : photo.toAbsolutePath().toString());
+                created.setPhotoExtension(photoExtension);
+                created.setCreatedAt(now);
+                created.setUpdatedAt(now);
+                return uploadJobRepository.save(created);
+            });
+        } catch (RuntimeException e) {
+            deleteStaged(video, photo);
+            throw e;
+        }
+        meterRegistry.counter("movies.upload.jobs", "outcome", "submitted").increment();
+        dispatch();
+        return toResponse(job);
+    }
+
+    private void run(Long id) {
+        try {
+            uploadJobRepository.findById(id).ifPresent(this::process);
+        } catch (RuntimeException e) {
+            // Left RUNNING; it is picked up again once its lease expires
+            log.error("Upload job {} could not record its outcome", id, e);
+        } finally {
+            claimed.remove(id);
+        }
+    }
+
+    private void process(UploadJob job) {
+        long start = System.nanoTime();
+        try {
+            // Once the movie holds the media the job can only succeed; a lost SUCCEEDED is recorded by the next attempt
+            if (complete(job)) {
+                finish(job, UploadJobStatus.SUCCEEDED, null);
+            }
+        } finally {
+            processTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // False when the attempt failed; the job is then failed for good or queued again
+    private boolean complete(UploadJob job) {
+        try {
+            // A retry reuses what an earlier attempt stored; the staged files went into the store with it
+            if (job.getVideoKey() == null) {
+                storeMedia(job);
+            }
+            // Returns the movie unchanged when an earlier attempt completed it but did not record that
+            movieService.completePendingMovie(job.getMovieId(), job.getVideoKey(), job.getThumbnailKey(), job.getDurationSeconds());
+            return true;
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            fail(job, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            if (job.getAttempts() >= maxAttempts) {
+                fail(job, e.getMessage());
+            } else {
+                log.warn("Upload job {} attempt {} failed, retrying: {}", job.getId(), job.getAttempts(), e.getMessage());
+                finish(job, UploadJobStatus.QUEUED, e.getMessage());
+            }
+        }
+        return false;
+    }
+
+    // Checks and probes the staged files, moves them into the store and records the keys on the job
+    private void storeMedia(UploadJob job) throws IOException {
+        Path video = Paths.get(job.getVideoPath());
+        Path photo = job.getPhotoPath() == null ? null : Paths.get(job.getPhotoPath());
+        if (!Files.exists(video) || (photo != null && !Files.exists(photo))) {
+            throw new BadRequestException("Staged upload file is missing");
+        }
+        String contentType = MediaSniffer.sniffVideo(video);
+        if (contentType == null) {
+            throw new BadRequestException("Video file is not in a supported container format");
+        }
+        if (photo != null && MediaSniffer.sniffImage(photo) == null) {
+            throw new BadRequestException("Image file is not a JPEG, PNG, GIF or WebP image");
+        }
+        Integer durationSeconds = MediaSniffer.probeDurationSeconds(video, contentType);
+
+        // The staged files themselves stay until the job finishes, so a failed attempt can be retried
+        String thumbnailKey = null;
+        MediaStorageService.StoredMedia stored = null;
+        try {
+            thumbnailKey = photo == null ? null : storeStaged(photo, job.getPhotoExtension()).key();
+            stored = storeStaged(video, job.getVideoExtension());
+            job.setVideoKey(stored.key());
+            job.setThumbnailKey(thumbnailKey);
+            job.setDurationSeconds(durationSeconds);
+            job.setContentType(contentType);
+            job.setSize(stored.size());
+            job.setSha256(stored.sha256());
+            job.setUpdatedAt(Instant.now());
+            uploadJobRepository.save(job);
+        } catch (IOException | RuntimeException e) {
+            // Only this attempt's references go; the next attempt stores the staged files again
+            mediaStorageService.release(thumbnailKey);
+            mediaStorageService.release(stored == null ? null : stored.key());
+            job.setVideoKey(null);
+            job.setThumbnailKey(null);
+            throw e;
+        }
+    }
+
+    // Hands the store a hard link to the staged file, or a copy when they are on different filesystems
+    private MediaStorageService.StoredMedia storeStaged(Path staged, String extension) throws IOException {
+        Path link = staged.resolveSibling(staged.getFileName() + "." + UUID.randomUUID() + ".store");
+        try {
+            Files.createLink(link, staged);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(staged, link);
+        }
+        try {
+            return mediaStorageService.store(link, extension);
+        } finally {
+            // Normally already moved into the store
+            deleteStaged(link);
+        }
+    }
+
+    private void fail(UploadJob job, String error) {
+        log.warn("Upload job {} failed: {}", job.getId(), error);
+        if (job.getMovieId() != null) {
+            movieService.discardPendingMovie(job.getMovieId());
+            job.setMovieId(null);
+        }
+        // The movie never took over the stored media, so the job's references go
+        mediaStorageService.release(job.getThumbnailKey());
+        mediaStorageService.release(job.getVideoKey());
+        job.setVideoKey(null);
+        job.setThumbnailKey(null);
+        finish(job, UploadJobStatus.FAILED, error);
+    }
+
+    private void finish(UploadJob job, UploadJobStatus status, String error) {
+        job.setStatus(status);
+        job.setError(error == null || error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH));
+        job.setLockedUntil(null);
+        job.setUpdatedAt(Instant.now());
+        uploadJobRepository.save(job);
+        if (status.isFinished()) {
+            deleteStaged(Paths.get(job.getVideoPath()), job.getPhotoPath() == null ? null : Paths.get(job.getPhotoPath()));
+        }
+        meterRegistry.counter("movies.upload.jobs", "outcome", status.name().toLowerCase(Locale.ROOT)).increment();
+    }
+
+    private Path stage(MultipartFile file) throws IOException {
+        Files.createDirectories(stagingDir);
+        // An absolute File lets the container move its spooled part rather than copy it
+        Path target = stagingDir.resolve(STAGED_PREFIX + UUID.randomUUID() + ".upload").toAbsolutePath();
+        file.transferTo(target.toFile());
+        return target;
+    }
+
+    private void deleteStaged(Path... files) {
+        for (Path file : files) {
+            if (file == null) {
+                continue;
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete staged upload {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private UploadJobResponse toResponse(UploadJob job) {
+        return new UploadJobResponse(job.getId(), job.getStatus(), job.getMovieId(), job.getAttempts(), job.getError(),
+                job.getContentType(), job.getSize(), job.getSha256(), job.getCreatedAt(), job.getUpdatedAt(), null);
+    }
+}
@@ -1,40 +1,38 @@
 package org.example.movices.service.impl;
 
 import lombok.RequiredArgsConstructor;
+import org.example.movices.config.PrincipalCache;
 import org.example.movices.dto.request.UserRequest;
 import org.example.movices.dto.response.UserResponse;
 import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.mapper.UserMapper;
 import org.example.movices.model.entity.User;
 import org.example.movices.repository.UserRepository;
+import org.example.movices.service.PasswordHashingService;
 import org.example.movices.service.UserService;
-import org.modelmapper.ModelMapper;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
-    private final ModelMapper modelMapper;
-    private final PasswordEncoder passwordEncoder;
+    private final UserMapper userMapper;
+    private final PasswordHashingService passwordHashingService;
+    private final PrincipalCache principalCache;
 
     @Override
     public UserResponse getUserById(Long id) {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
-        return modelMapper.map(user, UserResponse.class);
+        return userMapper.toResponse(user);
     }
 
     @Override
     public List<UserResponse> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(user -> modelMapper.map(user, UserResponse.class))
-                .collect(Collectors.toList());
+        return userMapper.toResponses(userRepository.findAll());
     }
 
     @Override
@@ -42,22 +40,25 @@ public class UserServiceImpl implements UserService {
         User existingUser = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
+        String previousUsername = existingUser.getUsername();
         existingUser.setUsername(userRequest.getUsername());
         existingUser.setEmail(userRequest.getEmail());
 
         if (userRequest.getPassword() != null && !userRequest.getPassword().isEmpty()) {
-            existingUser.setPassword(passwordEncoder.encode(userRequest.getPassword()));
+            existingUser.setPassword(passwordHashingService.encode(userRequest.getPassword()));
         }
 
         existingUser = userRepository.save(existingUser);
-        return modelMapper.map(existingUser, UserResponse.class);
+        principalCache.evict(previousUsername);
+        principalCache.evict(existingUser.getUsername());
+        return userMapper.toResponse(existingUser);
     }
 
     @Override
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         userRepository.deleteById(id);
+        principalCache.evict(user.getUsername());
     }
 }
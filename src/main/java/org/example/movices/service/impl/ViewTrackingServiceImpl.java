@@ -0,0 +1,360 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.movices.config.ViewFlushSequence;
+import org.example.movices.dto.response.ContinueWatchingResponse;
+import org.example.movices.dto.response.PopularMovieResponse;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.MovieViewsFlushedEvent;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.MovieViewCount;
+import org.example.movices.model.entity.WatchProgress;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.MovieViewCountRepository;
+import org.example.movices.repository.WatchProgressRepository;
+import org.example.movices.service.MediaStreamingService.ServedRange;
+import org.example.movices.service.ViewTrackingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Counts views and keeps resume positions without touching the database on the playback path.
+ * Views go to per-movie {@link LongAdder}s and progress to a latest-wins map per user and movie,
+ * so a burst of range requests collapses into one pending entry per key. A scheduled flush
+ * drains both into movie_view_counts, movie_daily_views and watch_progress with JDBC batches and
+ * announces the views it wrote with a {@link MovieViewsFlushedEvent}, numbered by
+ * {@link ViewFlushSequence} in the same transaction; a failed flush puts its
+ * entries back for the next one. The number of pending keys is capped, and events arriving
+ * past the cap, or still pending when a final flush on shutdown fails, are counted as dropped.
+ */
+@Slf4j
+@Service
+public class ViewTrackingServiceImpl implements ViewTrackingService {
+
+    private static final int MAX_LIMIT = 100;
+
+    private record ProgressKey(long userId, long movieId) {
+    }
+
+    private record Progress(long position, long length, Instant at) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ViewFlushSequence viewFlushSequence;
+    private final MovieViewCountRepository movieViewCountRepository;
+    private final WatchProgressRepository watchProgressRepository;
+    private final MovieRepository movieRepository;
+    private final MovieMapper movieMapper;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Timer flushTimer;
+    private final int maxPendingKeys;
+    private final int batchSize;
+    private final int dailyRetentionDays;
+
+    private final ConcurrentHashMap<Long, LongAdder> views = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ProgressKey, Progress> progress = new ConcurrentHashMap<>();
+    // Serializes flushes without pinning a virtual thread's carrier during the transaction
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public ViewTrackingServiceImpl(JdbcTemplate jdbcTemplate,
+                                   NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   MovieViewCountRepository movieViewCountRepository,
+                                   WatchProgressRepository watchProgressRepository,
+                                   MovieRepository movieRepository,
+                                   MovieMapper movieMapper,
+                                   MeterRegistry meterRegistry,
+                                   ApplicationEventPublisher eventPublisher,
+                                   ViewFlushSequence viewFlushSequence,
+                                   @Value("${movies.tracking.max-pending-keys:100000}") int maxPendingKeys,
+                                   @Value("${movies.tracking.batch-size:500}") int batchSize,
+                                   @Value("${movies.tracking.daily-retention-days:30}") int dailyRetentionDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.movieViewCountRepository = movieViewCountRepository;
+        this.watchProgressRepository = watchProgressRepository;
+        this.movieRepository = movieRepository;
+        this.movieMapper = movieMapper;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.viewFlushSequence = viewFlushSequence;
+        this.maxPendingKeys = maxPendingKeys;
+        this.batchSize = batchSize;
+        this.dailyRetentionDays = dailyRetentionDays;
+
+        this.flushTimer = Timer.builder("tracking.flush").register(meterRegistry);
+        Gauge.builder("tracking.pending", views, Map::size).tag("type", "views").register(meterRegistry);
+        Gauge.builder("tracking.pending", progress, Map::size).tag("type", "progress").register(meterRegistry);
+    }
+
+    // A view is a playback that starts at the beginning; later range requests only move the resume position
+    @Override
+    public void recordPlayback(Long userId, Long movieId, ServedRange range) {
+        if (movieId == null || range == null) {
+            return;
+        }
+        if (range.start() == 0) {
+            if (views.containsKey(movieId) || views.size() < maxPendingKeys) {
+                addViews(movieId, 1);
+            } else {
+                dropped("views", "overflow", 1);
+            }
+        }
+        if (userId != null) {
+            ProgressKey key = new ProgressKey(userId, movieId);
+            if (progress.containsKey(key) || progress.size() < maxPendingKeys) {
+                putProgress(key, new Progress(range.start(), range.length(), Instant.now()));
+            } else {
+                dropped("progress", "overflow", 1);
+            }
+        }
+    }
+
+    @Override
+    public List<PopularMovieResponse> popular(int limit) {
+        List<MovieViewCount> counts = movieViewCountRepository.findMostViewed(PageRequest.of(0, clamp(limit)));
+        Map<Long, Movie> movies = load(counts.stream().map(MovieViewCount::getMovieId).toList());
+        return counts.stream()
+                .filter(count -> movies.containsKey(count.getMovieId()))
+                .map(count -> new PopularMovieResponse(movieMapper.toResponse(movies.get(count.getMovieId())), count.getViews()))
+                .toList();
+    }
+
+    @Override
+    public List<ContinueWatchingResponse> continueWatching(Long userId, int limit) {
+        List<WatchProgress> unfinished = watchProgressRepository.findUnfinished(userId, PageRequest.of(0, clamp(limit)));
+        Map<Long, Movie> movies = load(unfinished.stream().map(WatchProgress::getMovieId).toList());
+        return unfinished.stream()
+                .filter(entry -> movies.containsKey(entry.getMovieId()))
+                .map(entry -> new ContinueWatchingResponse(movieMapper.toResponse(movies.get(entry.getMovieId())),
+                        entry.getPositionBytes(), entry.getLengthBytes(), entry.getUpdatedAt()))
+                .toList();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${movies.tracking.flush-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            Map<Long, Long> drainedViews = drainViews();
+            Map<ProgressKey, Progress> drainedProgress = drainProgress();
+            if (drainedViews.isEmpty() && drainedProgress.isEmpty()) {
+                return;
+            }
+            LocalDate day = LocalDate.now(ZoneOffset.UTC);
+            Timer.Sample sample = Timer.start(meterRegistry);
+            long sequence;
+            try {
+                sequence = transactionTemplate.execute(status -> {
+                    writeViews(drainedViews, day);
+                    writeProgress(drainedProgress);
+                    return drainedViews.isEmpty() ? 0L : viewFlushSequence.next();
+                });
+            } catch (DataAccessException | TransactionException e) {
+                // Includes a transaction that could not even be opened, e.g. with the database unreachable
+                log.warn("Tracking flush failed, retrying {} view counters and {} positions later: {}",
+                        drainedViews.size(), drainedProgress.size(), e.getMostSpecificCause().getMessage());
+                drainedViews.forEach(this::addViews);
+                drainedProgress.forEach(progress::putIfAbsent);
+                return;
+            } finally {
+                sample.stop(flushTimer);
+            }
+            // Committed by now; a failing listener must not put the views back for a second write
+            if (!drainedViews.isEmpty()) {
+                eventPublisher.publishEvent(new MovieViewsFlushedEvent(sequence, day, drainedViews));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Scheduled(cron = "${movies.tracking.daily-purge-cron:0 15 0 * * *}", zone = "UTC")
+    public void purgeDailyViews() {
+        int deleted = jdbcTemplate.update("DELETE FROM movie_daily_views WHERE view_day < ?",
+                LocalDate.now(ZoneOffset.UTC).minusDays(dailyRetentionDays));
+        log.debug("Purged {} daily view rows", deleted);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        long lostViews = views.values().stream().mapToLong(LongAdder::sum).sum();
+        if (lostViews > 0 || !progress.isEmpty()) {
+            dropped("views", "shutdown", lostViews);
+            dropped("progress", "shutdown", progress.size());
+            log.error("Lost {} views and {} watch positions that could not be flushed on shutdown", lostViews, progress.size());
+        }
+    }
+
+    @EventListener
+    public void onMovieChanged(MovieChangedEvent event) {
+        if (event.type() != MovieChangedEvent.Type.DELETED) {
+            return;
+        }
+        Long movieId = event.movie().getId();
+        views.remove(movieId);
+        progress.keySet().removeIf(key -> key.movieId() == movieId);
+        jdbcTemplate.update("DELETE FROM movie_view_counts WHERE movie_id = ?", movieId);
+        jdbcTemplate.update("DELETE FROM movie_daily_views WHERE movie_id = ?", movieId);
+        jdbcTemplate.update("DELETE FROM watch_progress WHERE movie_id = ?", movieId);
+    }
+
+    // A flush may retire a counter between a writer's lookup and its increment; the writer then moves its count to the live one
+    private void addViews(Long movieId, long count) {
+        while (count > 0) {
+            LongAdder counter = views.computeIfAbsent(movieId, key -> new LongAdder());
+            counter.add(count);
+            count = views.get(movieId) == counter ? 0 : counter.sumThenReset();
+        }
+    }
+
+    private void putProgress(ProgressKey key, Progress value) {
+        progress.merge(key, value, (current, candidate) -> candidate.at().isBefore(current.at()) ? current : candidate);
+    }
+
+    // Counters stay in place while in use; one that saw no views since the last flush is retired
+    private Map<Long, Long> drainViews() {
+        Map<Long, Long> drained = new HashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : views.entrySet()) {
+            LongAdder counter = entry.getValue();
+            long count = counter.sumThenReset();
+            if (count == 0 && views.remove(entry.getKey(), counter)) {
+                count = counter.sumThenReset();
+            }
+            if (count > 0) {
+                drained.put(entry.getKey(), count);
+            }
+        }
+        return drained;
+    }
+
+    private Map<ProgressKey, Progress> drainProgress() {
+        Map<ProgressKey, Progress> drained = new HashMap<>();
+        for (Map.Entry<ProgressKey, Progress> entry : progress.entrySet()) {
+            // A newer position recorded meanwhile stays for the next flush
+            if (progress.remove(entry.getKey(), entry.getValue())) {
+                drained.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return drained;
+    }
+
+    private void writeViews(Map<Long, Long> drained, LocalDate day) {
+        Timestamp now = Timestamp.from(Instant.now());
+        for (List<Long> ids : chunks(drained.keySet())) {
+            Set<Long> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                    "SELECT movie_id FROM movie_view_counts WHERE movie_id IN (:ids)",
+                    new MapSqlParameterSource("ids", ids), Long.class));
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (Long id : ids) {
+                if (existing.contains(id)) {
+                    updates.add(new Object[]{drained.get(id), now, id});
+                } else {
+                    inserts.add(new Object[]{id, drained.get(id), now});
+                }
+            }
+            jdbcTemplate.batchUpdate("UPDATE movie_view_counts SET views = views + ?, last_viewed_at = ? WHERE movie_id = ?", updates);
+            jdbcTemplate.batchUpdate("INSERT INTO movie_view_counts (movie_id, views, last_viewed_at) VALUES (?, ?, ?)", inserts);
+            writeDailyViews(ids, drained, day);
+        }
+    }
+
+    private void writeDailyViews(List<Long> ids, Map<Long, Long> drained, LocalDate day) {
+        Set<Long> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT movie_id FROM movie_daily_views WHERE view_day = :day AND movie_id IN (:ids)",
+                new MapSqlParameterSource("ids", ids).addValue("day", day), Long.class));
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> inserts = new ArrayList<>();
+        for (Long id : ids) {
+            if (existing.contains(id)) {
+                updates.add(new Object[]{drained.get(id), id, day});
+            } else {
+                inserts.add(new Object[]{id, day, drained.get(id)});
+            }
+        }
+        jdbcTemplate.batchUpdate("UPDATE movie_daily_views SET views = views + ? WHERE movie_id = ? AND view_day = ?", updates);
+        jdbcTemplate.batchUpdate("INSERT INTO movie_daily_views (movie_id, view_day, views) VALUES (?, ?, ?)", inserts);
+    }
+
+    private void writeProgress(Map<ProgressKey, Progress> drained) {
+        for (List<ProgressKey> keys : chunks(drained.keySet())) {
+            MapSqlParameterSource params = new MapSqlParameterSource()
+                    .addValue("users", keys.stream().map(ProgressKey::userId).collect(Collectors.toSet()))
+                    .addValue("movies", keys.stream().map(ProgressKey::movieId).collect(Collectors.toSet()));
+            Set<ProgressKey> existing = new HashSet<>(namedParameterJdbcTemplate.query(
+                    "SELECT user_id, movie_id FROM watch_progress WHERE user_id IN (:users) AND movie_id IN (:movies)",
+                    params, (rs, rowNum) -> new ProgressKey(rs.getLong("user_id"), rs.getLong("movie_id"))));
+            List<Object[]> updates = new ArrayList<>();
+            List<Object[]> inserts = new ArrayList<>();
+            for (ProgressKey key : keys) {
+                Progress value = drained.get(key);
+                Timestamp at = Timestamp.from(value.at());
+                if (existing.contains(key)) {
+                    // Another instance may have written a newer position already
+                    updates.add(new Object[]{value.position(), value.length(), at, key.userId(), key.movieId(), at});
+                } else {
+                    inserts.add(new Object[]{key.userId(), key.movieId(), value.position(), value.length(), at});
+                }
+            }
+            jdbcTemplate.batchUpdate("UPDATE watch_progress SET position_bytes = ?, length_bytes = ?, updated_at = ? "
+                    + "WHERE user_id = ? AND movie_id = ? AND updated_at <= ?", updates);
+            jdbcTemplate.batchUpdate("INSERT INTO watch_progress (user_id, movie_id, position_bytes, length_bytes, updated_at) "
+                    + "VALUES (?, ?, ?, ?, ?)", inserts);
+        }
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> all = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += batchSize) {
+            chunks.add(all.subList(from, Math.min(from + batchSize, all.size())));
+        }
+        return chunks;
+    }
+
+    private Map<Long, Movie> load(List<Long> ids) {
+        return movieRepository.findAllById(ids).stream().collect(Collectors.toMap(Movie::getId, Function.identity()));
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    private void dropped(String type, String reason, long count) {
+        if (count > 0) {
+            meterRegistry.counter("tracking.events.dropped", "type", type, "reason", reason).increment(count);
+        }
+    }
+}
@@ -1,4 +1,59 @@
 package org.example.movices.util;
 
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 public class DateUtils {
+
+    private static final Pattern YEAR = Pattern.compile("\\d{4}");
+    private static final Pattern YEAR_MONTH = Pattern.compile("\\d{4}-\\d{1,2}");
+    // Spellings seen in free-text release dates; day-first and month-first numeric forms are too ambiguous to guess
+    private static final List<DateTimeFormatter> FORMATS = List.of(
+            DateTimeFormatter.ISO_LOCAL_DATE,
+            DateTimeFormatter.ofPattern("yyyy/M/d", Locale.ROOT),
+            DateTimeFormatter.ofPattern("d MMM yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("d MMMM yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("MMM d, yyyy", Locale.ENGLISH),
+            DateTimeFormatter.ofPattern("MMMM d, yyyy", Locale.ENGLISH));
+
+    private DateUtils() {
+    }
+
+    /**
+     * Parses a release date written as an ISO date, a bare year or year-month (first day assumed),
+     * or a spelled-out English date. Returns null for blank input.
+     *
+     * @throws IllegalArgumentException when the text is not a recognizable date
+     */
+    public static LocalDate parseReleaseDate(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String value = text.trim();
+        if (YEAR.matcher(value).matches()) {
+            return LocalDate.of(Integer.parseInt(value), 1, 1);
+        }
+        if (YEAR_MONTH.matcher(value).matches()) {
+            String[] parts = value.split("-");
+            try {
+                return YearMonth.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])).atDay(1);
+            } catch (DateTimeException e) {
+                throw new IllegalArgumentException("Unrecognized release date: " + text);
+            }
+        }
+        for (DateTimeFormatter format : FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // try the next spelling
+            }
+        }
+        throw new IllegalArgumentException("Unrecognized release date: " + text);
+    }
 }
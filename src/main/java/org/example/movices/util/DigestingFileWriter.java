@@ -0,0 +1,83 @@
+package org.example.movices.util;
+
+import org.example.movices.exception.PayloadTooLargeException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Copies a stream into its final location in a single pass, hashing and counting bytes as they
+ * go by. Data lands in a sibling temp file that is renamed into place once the stream ends, so a
+ * failed or oversized upload never leaves a partial file under the target name.
+ */
+public final class DigestingFileWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private DigestingFileWriter() {
+    }
+
+    public static Result write(InputStream in, Path target, long maxBytes) throws IOException {
+        MessageDigest digest = sha256();
+        Path temp = target.resolveSibling(target.getFileName() + ".part");
+        long start = System.nanoTime();
+        long total = 0;
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+                if (total > maxBytes) {
+                    throw new PayloadTooLargeException("Upload exceeds the maximum size of " + maxBytes + " bytes");
+                }
+                digest.update(buffer, 0, read);
+                ByteBuffer chunk = ByteBuffer.wrap(buffer, 0, read);
+                while (chunk.hasRemaining()) {
+                    channel.write(chunk);
+                }
+            }
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        return new Result(total, HexFormat.of().formatHex(digest.digest()), System.nanoTime() - start);
+    }
+
+    public static String sha256(Path file) throws IOException {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Result(long bytes, String sha256, long elapsedNanos) {
+
+        public double bytesPerSecond() {
+            return elapsedNanos == 0 ? bytes : bytes * 1_000_000_000d / elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.movices.util;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+// Key and file-name rules shared by the media store, the upload paths and the bulk import
+public final class MediaKeys {
+
+    // Content keys are the SHA-256 of the blob plus an optional extension
+    private static final Pattern CONTENT_KEY = Pattern.compile("^[0-9a-f]{64}(\\.[a-z0-9]{1,10})?$");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,10}");
+
+    private MediaKeys() {
+    }
+
+    public static boolean isContentKey(String key) {
+        return key != null && CONTENT_KEY.matcher(key).matches();
+    }
+
+    // Lower-cased extension of a client-supplied file name, or "" when it has none usable in a key
+    public static String extensionOf(String originalFilename) {
+        if (originalFilename == null || !originalFilename.contains(".")) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf(".") + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? extension : "";
+    }
+}
@@ -0,0 +1,203 @@
+package org.example.movices.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Identifies uploads by their leading bytes instead of the client-supplied content type
+public final class MediaSniffer {
+
+    // Enough for two MPEG-TS packets
+    private static final int HEADER_BYTES = 512;
+    private static final int TS_PACKET = 188;
+
+    private MediaSniffer() {
+    }
+
+    /**
+     * Returns the MIME type of a supported video container, or null when the bytes match none.
+     */
+    public static String sniffVideo(Path file) throws IOException {
+        return sniffVideo(readHeader(file));
+    }
+
+    public static String sniffVideo(byte[] header) {
+        if (startsWith(header, 4, "ftyp")) {
+            return startsWith(header, 8, "qt  ") ? "video/quicktime" : "video/mp4";
+        }
+        // QuickTime files older than the ftyp box open straight with their atoms
+        if (startsWith(header, 4, "moov") || startsWith(header, 4, "mdat") || startsWith(header, 4, "wide")) {
+            return "video/quicktime";
+        }
+        if (startsWith(header, 0, 0x1A, 0x45, 0xDF, 0xA3)) {
+            return indexOf(header, "webm") >= 0 ? "video/webm" : "video/x-matroska";
+        }
+        if (startsWith(header, 0, "RIFF") && startsWith(header, 8, "AVI ")) {
+            return "video/x-msvideo";
+        }
+        if (startsWith(header, 0, "FLV") && startsWith(header, 3, 0x01)) {
+            return "video/x-flv";
+        }
+        if (startsWith(header, 0, "OggS")) {
+            return "video/ogg";
+        }
+        if (startsWith(header, 0, 0x00, 0x00, 0x01, 0xBA)) {
+            return "video/mpeg";
+        }
+        if (header.length > TS_PACKET && header[0] == 0x47 && header[TS_PACKET] == 0x47) {
+            return "video/mp2t";
+        }
+        return null;
+    }
+
+    /**
+     * Returns the MIME type of a supported image format, or null when the bytes match none.
+     */
+    public static String sniffImage(Path file) throws IOException {
+        return sniffImage(readHeader(file));
+    }
+
+    public static String sniffImage(byte[] header) {
+        if (startsWith(header, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(header, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(header, 0, "GIF87a") || startsWith(header, 0, "GIF89a")) {
+            return "image/gif";
+        }
+        if (startsWith(header, 0, "RIFF") && startsWith(header, 8, "WEBP")) {
+            return "image/webp";
+        }
+        return null;
+    }
+
+    /**
+     * Reads the duration from the movie header (moov/mvhd) of MP4 and QuickTime files. Returns null
+     * for other containers and for files that carry no usable header.
+     */
+    public static Integer probeDurationSeconds(Path file, String contentType) throws IOException {
+        if (!"video/mp4".equals(contentType) && !"video/quicktime".equals(contentType)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long[] moov = findBox(channel, 0, channel.size(), "moov");
+            long[] mvhd = moov == null ? null : findBox(channel, moov[0], moov[1], "mvhd");
+            if (mvhd == null) {
+                return null;
+            }
+            ByteBuffer body = ByteBuffer.allocate(32);
+            int read = readFully(channel, body, mvhd[0]);
+            body.flip();
+            int version = read > 0 ? body.get(0) & 0xFF : -1;
+            long timescale;
+            long duration;
+            // Version and flags, then creation and modification times of 4 or 8 bytes each
+            if (version == 0 && read >= 20) {
+                timescale = Integer.toUnsignedLong(body.getInt(12));
+                duration = Integer.toUnsignedLong(body.getInt(16));
+                if (duration == 0xFFFFFFFFL) {
+                    return null;
+                }
+            } else if (version == 1 && read >= 32) {
+                timescale = Integer.toUnsignedLong(body.getInt(20));
+                duration = body.getLong(24);
+            } else {
+                return null;
+            }
+            if (timescale == 0 || duration <= 0) {
+                return null;
+            }
+            return (int) Math.min(Math.round((double) duration / timescale), Integer.MAX_VALUE);
+        }
+    }
+
+    // Body start and end of the first box of the given type within [from, to), or null
+    private static long[] findBox(FileChannel channel, long from, long to, String type) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(16);
+        long position = from;
+        while (position + 8 <= to) {
+            header.clear();
+            int read = readFully(channel, header, position);
+            if (read < 8) {
+                return null;
+            }
+            long size = Integer.toUnsignedLong(header.getInt(0));
+            byte[] name = new byte[4];
+            header.get(4, name);
+            long headerSize = 8;
+            if (size == 1) {
+                if (read < 16) {
+                    return null;
+                }
+                size = header.getLong(8);
+                headerSize = 16;
+            } else if (size == 0) {
+                size = to - position;
+            }
+            if (size < headerSize || size > to - position) {
+                return null;
+            }
+            if (type.equals(new String(name, StandardCharsets.US_ASCII))) {
+                return new long[]{position + headerSize, position + size};
+            }
+            position += size;
+        }
+        return null;
+    }
+
+    private static byte[] readHeader(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES);
+            int read = readFully(channel, buffer, 0);
+            return Arrays.copyOf(buffer.array(), read);
+        }
+    }
+
+    private static int readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + total);
+            if (read < 0) {
+                break;
+            }
+            total += read;
+        }
+        return total;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, String ascii) {
+        return startsWith(data, offset, ascii.chars().toArray());
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... expected) {
+        if (data.length < offset + expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if ((data[offset + i] & 0xFF) != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(byte[] data, String ascii) {
+        byte[] needle = ascii.getBytes(StandardCharsets.US_ASCII);
+        outer:
+        for (int i = 0; i <= data.length - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (data[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
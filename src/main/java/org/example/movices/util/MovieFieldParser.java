@@ -0,0 +1,60 @@
+package org.example.movices.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Parsing shared by the API, the bulk import and the legacy column migration
+public final class MovieFieldParser {
+
+    public static final BigDecimal MAX_RATING = BigDecimal.TEN;
+    public static final int MAX_GENRE_LENGTH = 50;
+
+    private MovieFieldParser() {
+    }
+
+    /**
+     * Parses a 0-10 rating, rounded to one decimal as stored. Returns null for blank input.
+     *
+     * @throws IllegalArgumentException when the text is not a number in range
+     */
+    public static BigDecimal parseRating(String text) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        BigDecimal rating;
+        try {
+            rating = new BigDecimal(text.trim()).setScale(1, RoundingMode.HALF_UP);
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("Rating must be a number: " + text);
+        }
+        if (rating.signum() < 0 || rating.compareTo(MAX_RATING) > 0) {
+            throw new IllegalArgumentException("Rating must be between 0 and 10: " + text);
+        }
+        return rating;
+    }
+
+    /**
+     * Splits a genre list such as "Action, Sci-Fi" or "Drama|Romance" into trimmed, distinct names.
+     *
+     * @throws IllegalArgumentException when a name is longer than the genre column
+     */
+    public static Set<String> parseGenres(String text) {
+        if (text == null || text.isBlank()) {
+            return Set.of();
+        }
+        Set<String> names = Arrays.stream(text.split("[,|;]"))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        for (String name : names) {
+            if (name.length() > MAX_GENRE_LENGTH) {
+                throw new IllegalArgumentException("Genre names are limited to " + MAX_GENRE_LENGTH + " characters: " + name);
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.movices.advice;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.request.LoginRequest;
+import org.example.movices.exception.UnauthorizedException;
+import org.example.movices.service.AuthService;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoggingAdviceTest {
+
+    @Test
+    void timesServiceCallsByMethodAndOutcome() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LoggingAdvice advice = new LoggingAdvice(registry);
+        ReflectionTestUtils.setField(advice, "slowThreshold", Duration.ofSeconds(1));
+
+        AuthService target = Mockito.mock(AuthService.class);
+        Mockito.when(target.signIn(Mockito.any())).thenThrow(new UnauthorizedException("Invalid credentials"));
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addInterface(AuthService.class);
+        factory.addAspect(advice);
+        AuthService proxy = factory.getProxy();
+
+        proxy.signUp(null);
+        assertThrows(UnauthorizedException.class, () -> proxy.signIn(new LoginRequest()));
+
+        Timer success = registry.find("service.calls")
+                .tags("service", "AuthService", "method", "signUp", "outcome", "success").timer();
+        Timer failure = registry.find("service.calls")
+                .tags("service", "AuthService", "method", "signIn", "outcome", "UnauthorizedException").timer();
+        assertNotNull(success);
+        assertNotNull(failure);
+        assertEquals(1, success.count());
+        assertEquals(1, failure.count());
+    }
+}
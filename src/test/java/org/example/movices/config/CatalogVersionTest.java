@@ -0,0 +1,129 @@
+package org.example.movices.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.mapper.MovieMapperImpl;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.service.MovieService;
+import org.example.movices.service.impl.MovieServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@SpringJUnitConfig(CatalogVersionTest.Config.class)
+class CatalogVersionTest {
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Configuration
+    @EnableCaching
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.MOVIE_LIST, CacheConfig.CATALOG_SNAPSHOTS);
+        }
+
+        @Bean
+        CatalogVersion catalogVersion(CacheManager cacheManager) {
+            return new CatalogVersion(cacheManager);
+        }
+
+        @Bean
+        MovieRepository movieRepository() {
+            return mock(MovieRepository.class);
+        }
+
+        @Bean
+        MovieService movieService(MovieRepository movieRepository, CatalogVersion catalogVersion) {
+            return new MovieServiceImpl(movieRepository, new MovieMapperImpl(), new SimpleMeterRegistry(), null, null, null,
+                    event -> { }, catalogVersion, null);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(movieRepository);
+    }
+
+    @Test
+    void listingReadBeforeACommitIsNotServedForTheNewVersion() {
+        Movie before = movie(1L, "Heat");
+        Movie after = movie(2L, "Ronin");
+        // The writer commits and bumps while this reader is still holding the rows it read before
+        Mockito.when(movieRepository.findByStatus(MovieStatus.READY))
+                .thenAnswer(invocation -> {
+                    catalogVersion.bump();
+                    return List.of(before);
+                })
+                .thenReturn(List.of(before, after));
+
+        assertEquals(List.of("Heat"), titles(movieService.getAllMovies()));
+        assertEquals(List.of("Heat", "Ronin"), titles(movieService.getAllMovies()));
+        assertEquals(List.of("Heat", "Ronin"), titles(movieService.getAllMovies()));
+        Mockito.verify(movieRepository, Mockito.times(2)).findByStatus(MovieStatus.READY);
+    }
+
+    @Test
+    void bumpInsideATransactionWaitsForTheCommit() {
+        long version = catalogVersion.current().version();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogVersion.bump();
+            assertEquals(version, catalogVersion.current().version());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(version + 1, catalogVersion.current().version());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void rolledBackBumpLeavesTheVersion() {
+        long version = catalogVersion.current().version();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            catalogVersion.bump();
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertEquals(version, catalogVersion.current().version());
+    }
+
+    private static Movie movie(Long id, String title) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setStatus(MovieStatus.READY);
+        return movie;
+    }
+
+    private static List<String> titles(List<MovieResponse> movies) {
+        return movies.stream().map(MovieResponse::getTitle).toList();
+    }
+}
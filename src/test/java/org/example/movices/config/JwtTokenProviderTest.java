@@ -0,0 +1,65 @@
+package org.example.movices.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.model.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+
+    @Test
+    void cachedSignatureDoesNotVouchForAnAlteredPayload() {
+        JwtTokenProvider provider = newProvider(60_000);
+        String token = provider.issueToken(user()).token();
+        assertEquals("alice", provider.getClaimFromToken(token, Claims::getSubject));
+
+        String[] parts = token.split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+                .replace("\"sub\":\"alice\"", "\"sub\":\"admin\"");
+        String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+        assertThrows(SignatureException.class, () -> provider.getClaimFromToken(forged, Claims::getSubject));
+        // The genuine token is still answered from the cache
+        assertEquals("alice", provider.getClaimFromToken(token, Claims::getSubject));
+    }
+
+    @Test
+    void cachedTokenIsRejectedOnceExpired() throws InterruptedException {
+        JwtTokenProvider provider = newProvider(2_000);
+        String token = provider.issueToken(user()).token();
+        long expiresAt = provider.getClaimFromToken(token, Function.identity()).getExpiration().getTime();
+
+        while (System.currentTimeMillis() <= expiresAt) {
+            Thread.sleep(Math.max(1, expiresAt - System.currentTimeMillis() + 1));
+        }
+
+        assertThrows(ExpiredJwtException.class, () -> provider.getClaimFromToken(token, Claims::getSubject));
+    }
+
+    private static JwtTokenProvider newProvider(long expirationMs) {
+        JwtTokenProvider provider = new JwtTokenProvider(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(provider, "jwtSecret", "0123456789abcdef0123456789abcdef");
+        ReflectionTestUtils.setField(provider, "jwtExpirationMs", expirationMs);
+        ReflectionTestUtils.setField(provider, "verifiedCacheMaxSize", 100L);
+        ReflectionTestUtils.invokeMethod(provider, "initSigningKey");
+        return provider;
+    }
+
+    private static User user() {
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setEmail("alice@example.org");
+        return user;
+    }
+}
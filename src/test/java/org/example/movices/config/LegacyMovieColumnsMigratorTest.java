@@ -0,0 +1,137 @@
+package org.example.movices.config;
+
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.GenreRepository;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.search.MovieSearchIndex;
+import org.example.movices.search.TitleSuggester;
+import org.example.movices.service.LeaderboardService;
+import org.example.movices.service.impl.GenreServiceImpl;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+@DataJpaTest
+@Import({LegacyMovieColumnsMigrator.class, GenreServiceImpl.class, LegacyMovieColumnsMigratorTest.Config.class})
+@TestPropertySource(properties = {"movies.schema.legacy-migration.enabled=false", "movies.schema.drop-legacy-columns=true"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LegacyMovieColumnsMigratorTest {
+
+    @Autowired
+    private LegacyMovieColumnsMigrator migrator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.MOVIES, CacheConfig.MOVIE_LIST);
+        }
+
+        @Bean
+        CatalogVersion catalogVersion(CacheManager cacheManager) {
+            return new CatalogVersion(cacheManager);
+        }
+
+        @Bean
+        MovieSearchIndex movieSearchIndex() {
+            return mock(MovieSearchIndex.class);
+        }
+
+        @Bean
+        TitleSuggester titleSuggester() {
+            return mock(TitleSuggester.class);
+        }
+
+        @Bean
+        LeaderboardService leaderboardService() {
+            return mock(LeaderboardService.class);
+        }
+    }
+
+    @Test
+    void copiesLegacyValuesKeepsUnparseableOnesAndDropsColumnsWhenDone() {
+        assertFalse(migrator.hasLegacyColumns());
+        jdbcTemplate.execute("ALTER TABLE movies ADD COLUMN release_date VARCHAR(255)");
+        jdbcTemplate.execute("ALTER TABLE movies ADD COLUMN rating VARCHAR(255)");
+        jdbcTemplate.execute("ALTER TABLE movies ADD COLUMN genre VARCHAR(255)");
+        assertTrue(migrator.hasLegacyColumns());
+
+        Genre drama = new Genre();
+        drama.setName("Drama");
+        genreRepository.save(drama);
+        insert("The Matrix", "1999", "8.7", "Sci-Fi|Action");
+        insert("Magnolia", "December 17, 1999", "8", "drama");
+        insert("Memento", "sometime", "8.4", null);
+
+        assertEquals(new LegacyMovieColumnsMigrator.Result(3, 1), migrator.migrate());
+        Movie matrix = movieRepository.findByTitle("The Matrix");
+        assertEquals(LocalDate.of(1999, 1, 1), matrix.getReleaseDate());
+        assertEquals(new BigDecimal("8.7"), matrix.getRating());
+        assertEquals(Set.of("Sci-Fi", "Action"), names(matrix));
+        assertEquals(1, matrix.getVersion());
+        Movie magnolia = movieRepository.findByTitle("Magnolia");
+        assertEquals(LocalDate.of(1999, 12, 17), magnolia.getReleaseDate());
+        assertEquals(Set.of("Drama"), names(magnolia));
+        assertEquals(3, genreRepository.count());
+
+        Movie memento = movieRepository.findByTitle("Memento");
+        assertNull(memento.getReleaseDate());
+        assertEquals(new BigDecimal("8.4"), memento.getRating());
+        assertEquals("sometime", jdbcTemplate.queryForObject(
+                "SELECT release_date FROM movies WHERE id = ?", String.class, memento.getId()));
+        assertTrue(migrator.hasLegacyColumns());
+
+        jdbcTemplate.update("UPDATE movies SET release_date = '2000-09-05' WHERE id = ?", memento.getId());
+        assertEquals(new LegacyMovieColumnsMigrator.Result(1, 0), migrator.migrate());
+        assertEquals(LocalDate.of(2000, 9, 5), movieRepository.findByTitle("Memento").getReleaseDate());
+        assertFalse(migrator.hasLegacyColumns());
+    }
+
+    @Test
+    void marksMoviesFromBeforeUploadJobsAsReady() {
+        jdbcTemplate.update("INSERT INTO movies (title, version) VALUES ('Kagemusha', 0)");
+        jdbcTemplate.update("INSERT INTO movies (title, status, version) VALUES ('Ran', 'PENDING', 0)");
+
+        migrator.backfillStatus();
+
+        assertEquals(MovieStatus.PENDING, movieRepository.findByTitle("Ran").getStatus());
+        assertEquals(MovieStatus.READY, movieRepository.findByTitle("Kagemusha").getStatus());
+    }
+
+    private void insert(String title, String releaseDate, String rating, String genre) {
+        jdbcTemplate.update("INSERT INTO movies (title, release_date, rating, genre, version) VALUES (?, ?, ?, ?, 0)",
+                title, releaseDate, rating, genre);
+    }
+
+    private Set<String> names(Movie movie) {
+        return movie.getGenres().stream().map(Genre::getName).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,105 @@
+package org.example.movices.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringJUnitWebConfig(SecurityConfigTest.Config.class)
+@TestPropertySource(properties = {"metrics.scrape.username=scraper", "metrics.scrape.password=s3cret", "security.password.bcrypt-strength=4"})
+class SecurityConfigTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @MockBean
+    private JwtTokenProvider jwtTokenProvider;
+
+    @MockBean
+    private PrincipalCache principalCache;
+
+    private MockMvc mockMvc;
+
+    @Configuration
+    @EnableWebMvc
+    @EnableWebSecurity
+    @Import({SecurityConfig.class, JwtAuthFilter.class, Config.Endpoints.class})
+    static class Config {
+        @RestController
+        static class Endpoints {
+            @GetMapping({"/actuator/prometheus", "/actuator/health"})
+            String scrape() {
+                return "ok";
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                .addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+                .build();
+    }
+
+    @Test
+    void prometheusRequiresTheScrapeCredential() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper", "wrong")))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, basic("scraper", "s3cret")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void prometheusAcceptsAdminTokensOnly() throws Exception {
+        signedIn("admin-token", "admin", "ROLE_ADMIN");
+        signedIn("user-token", "user", "ROLE_USER");
+
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer admin-token"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, "Bearer user-token"))
+                .andExpect(status().isForbidden());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void signedIn(String token, String username, String role) {
+        Claims claims = Jwts.claims().setSubject(username);
+        Mockito.when(jwtTokenProvider.getClaimFromToken(ArgumentMatchers.eq(token), ArgumentMatchers.any()))
+                .thenAnswer(invocation -> ((Function<Claims, Object>) invocation.getArgument(1)).apply(claims));
+        Mockito.when(principalCache.get(username))
+                .thenReturn(new AuthenticatedUser(1L, username, username + "@example.org", List.of(new SimpleGrantedAuthority(role))));
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,128 @@
+package org.example.movices.controller;
+
+import org.example.movices.config.CacheConfig;
+import org.example.movices.config.CatalogSnapshots;
+import org.example.movices.config.CatalogVersion;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.service.MovieService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class MovieControllerConditionalGetTest {
+
+    private MovieService movieService;
+    private CatalogVersion catalogVersion;
+    private ConcurrentMapCacheManager cacheManager;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        movieService = Mockito.mock(MovieService.class);
+        cacheManager = new ConcurrentMapCacheManager();
+        catalogVersion = new CatalogVersion(cacheManager);
+        CatalogSnapshots catalogSnapshots = new CatalogSnapshots(cacheManager, Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(catalogSnapshots, "compressionEnabled", true);
+        MovieController controller = new MovieController(movieService, null, null, null, null, catalogVersion, catalogSnapshots, null, null, null);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+    }
+
+    @Test
+    void movieRevalidatesAgainstItsVersion() throws Exception {
+        MovieResponse movie = new MovieResponse();
+        movie.setId(7L);
+        movie.setVersion(3);
+        movie.setUpdatedAt(Instant.parse("2024-05-01T10:00:00Z"));
+        Mockito.when(movieService.getMovieById(7L)).thenReturn(movie);
+
+        mockMvc.perform(get("/api/movies/7"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"7-3\""));
+        mockMvc.perform(get("/api/movies/7").header(HttpHeaders.IF_NONE_MATCH, "\"7-3\""))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/movies/7").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 May 2024 10:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        movie.setVersion(4);
+        mockMvc.perform(get("/api/movies/7").header(HttpHeaders.IF_NONE_MATCH, "\"7-3\""))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void listingIsNotLoadedWhenTheCatalogIsUnchanged() throws Exception {
+        Mockito.when(movieService.getAllMovies()).thenReturn(List.of());
+        String etag = mockMvc.perform(get("/api/movies"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // Even with the snapshot evicted, a matching tag is answered without rebuilding it
+        cacheManager.getCache(CacheConfig.CATALOG_SNAPSHOTS).clear();
+        mockMvc.perform(get("/api/movies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        Mockito.verify(movieService, Mockito.times(1)).getAllMovies();
+
+        catalogVersion.bump();
+        mockMvc.perform(get("/api/movies").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void largeResponsesAreServedFromOneSnapshotInBothEncodings() throws Exception {
+        List<MovieResponse> movies = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            MovieResponse movie = new MovieResponse();
+            movie.setId(id);
+            movie.setTitle("Movie " + id);
+            movies.add(movie);
+        }
+        Mockito.when(movieService.searchMovie("movie", false)).thenReturn(movies);
+
+        MockHttpServletResponse plain = mockMvc.perform(get("/api/movies/search").param("query", "movie"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andReturn().getResponse();
+        MockHttpServletResponse gzipped = mockMvc.perform(get("/api/movies/search").param("query", "movie")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+                .andReturn().getResponse();
+
+        byte[] json = plain.getContentAsByteArray();
+        assertTrue(gzipped.getContentAsByteArray().length < json.length / 4);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getContentAsByteArray()))) {
+            assertArrayEquals(json, in.readAllBytes());
+        }
+        assertNotEquals(plain.getHeader(HttpHeaders.ETAG), gzipped.getHeader(HttpHeaders.ETAG));
+        Mockito.verify(movieService, Mockito.times(1)).searchMovie("movie", false);
+
+        cacheManager.getCache(CacheConfig.CATALOG_SNAPSHOTS).clear();
+        mockMvc.perform(get("/api/movies/search").param("query", "movie")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                        .header(HttpHeaders.IF_NONE_MATCH, gzipped.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+        Mockito.verify(movieService, Mockito.times(1)).searchMovie("movie", false);
+
+        mockMvc.perform(get("/api/movies/search").param("query", "movie")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip;q=0, *"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.movices.repository;
+
+import org.example.movices.config.QueryCounter;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieSortField;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=org.example.movices.config.QueryCounter")
+class MovieRepositoryTest {
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private GenreRepository genreRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        Genre drama = genre("Drama");
+        Genre comedy = genre("Comedy");
+        for (int i = 0; i < 25; i++) {
+            Movie movie = new Movie();
+            movie.setTitle("Movie " + i);
+            movie.setGenres(i % 2 == 0 ? Set.of(drama) : Set.of(drama, comedy));
+            movie.setReleaseDate(LocalDate.of(1990 + i, 6, 1));
+            // Every fifth movie has no rating to exercise NULL handling in the seek predicate
+            movie.setRating(i % 5 == 0 ? null : BigDecimal.valueOf(i % 7 + 2.5));
+            movieRepository.save(movie);
+        }
+        // Keeps the pending inserts out of the statements captured by the tests
+        movieRepository.flush();
+    }
+
+    @Test
+    void keysetPagesVisitEveryRowOnceInBothDirections() {
+        for (boolean ascending : new boolean[]{true, false}) {
+            List<Movie> seen = pageThrough(MovieSortField.RATING, ascending, UnaryOperator.identity(), 4);
+            assertEquals(25, seen.size());
+            assertEquals(25, seen.stream().map(Movie::getId).distinct().count());
+        }
+    }
+
+    @Test
+    void keysetPagesApplyFilters() {
+        List<Movie> seen = pageThrough(MovieSortField.TITLE, true, query -> query.genre("Comedy"), 3);
+        assertEquals(12, seen.size());
+    }
+
+    @Test
+    void filteredKeysetPagesMatchASingleRead() {
+        UnaryOperator<MovieKeysetQuery.MovieKeysetQueryBuilder> bestRatedOfTheNineties = query -> query
+                .releasedFrom(LocalDate.of(1990, 1, 1))
+                .releasedBefore(LocalDate.of(2000, 1, 1))
+                .minRating(new BigDecimal("3.0"));
+        for (boolean ascending : new boolean[]{true, false}) {
+            List<Movie> all = movieRepository.findPage(bestRatedOfTheNineties.apply(MovieKeysetQuery.builder()
+                    .sortField(MovieSortField.RATING).ascending(ascending).limit(100)).build());
+            assertEquals(7, all.size());
+            assertEquals(all, pageThrough(MovieSortField.RATING, ascending, bestRatedOfTheNineties, 2));
+        }
+    }
+
+    @Test
+    void keysetSeekIsARangeOnTheSortIndex() {
+        Movie after = movieRepository.findAll().stream()
+                .filter(movie -> movie.getRating() != null && movie.getRating().compareTo(new BigDecimal("6.5")) == 0)
+                .findFirst().orElseThrow();
+        MovieKeysetQuery query = MovieKeysetQuery.builder()
+                .sortField(MovieSortField.RATING).ascending(false)
+                .afterId(after.getId()).afterValue(after.getRating()).limit(5)
+                .build();
+        List<Movie> page = new ArrayList<>();
+        List<String> sql = QueryCounter.capture(() -> page.addAll(movieRepository.findPage(query)));
+        assertEquals(5, page.size());
+        assertEquals(1, sql.size());
+
+        String plan = explain(sql.get(0), MovieStatus.READY.name(), after.getRating(), after.getRating(), after.getId(), 5);
+        // The index is entered at the cursor rather than read from the top and filtered
+        assertTrue(plan.contains("IDX_MOVIES_RATING_VALUE: RATING_VALUE <= ?2"), plan);
+    }
+
+    @Test
+    void filterQueriesUseTheCompositeIndexes() {
+        LocalDate from = LocalDate.of(2000, 1, 1);
+        LocalDate before = LocalDate.of(2010, 1, 1);
+        List<Movie> rated = new ArrayList<>();
+        List<String> ratedSql = QueryCounter.capture(() -> rated.addAll(movieRepository.findReleasedBetweenRatedAtLeast(
+                from, before, new BigDecimal("5.0"), PageRequest.of(0, 5))));
+        assertEquals(List.of(BigDecimal.valueOf(8.5), BigDecimal.valueOf(7.5), BigDecimal.valueOf(6.5)),
+                rated.stream().map(movie -> movie.getRating().stripTrailingZeros()).distinct().limit(3).toList());
+        assertTrue(rated.stream().allMatch(movie -> movie.getReleaseDate().getYear() >= 2000 && movie.getReleaseDate().getYear() < 2010));
+
+        List<Movie> comedies = new ArrayList<>();
+        List<String> genreSql = QueryCounter.capture(() -> comedies.addAll(movieRepository.findByGenreReleasedBetween(
+                "Comedy", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1), new BigDecimal("3.0"), PageRequest.of(0, 50))));
+        assertEquals(8, comedies.size());
+
+        // Plans of the statements Hibernate actually generated, with the same arguments bound
+        assertTrue(explain(ratedSql.get(0), from, before, new BigDecimal("5.0"), 0, 5).contains("IDX_MOVIES_RELEASED_RATING"));
+        assertTrue(explain(genreSql.get(0), "Comedy", LocalDate.of(1990, 1, 1), LocalDate.of(2020, 1, 1), new BigDecimal("3.0"), 0, 50)
+                .contains("IDX_MOVIE_GENRES_GENRE"));
+    }
+
+    @Test
+    void rankedSearchOrdersExactThenPrefixThenContainsThenDescription() {
+        save("Heat 2", null);
+        save("The Heat", null);
+        save("Heat", null);
+        save("Ronin", "A crew planning a heist in the summer heat");
+
+        List<String> titles = movieRepository.searchRanked("heat", "heat%", "%heat%", PageRequest.of(0, 10)).stream()
+                .map(Movie::getTitle)
+                .toList();
+        assertEquals(List.of("Heat", "Heat 2", "The Heat", "Ronin"), titles);
+
+        List<String> secondPage = movieRepository.searchRanked("heat", "heat%", "%heat%", PageRequest.of(1, 3)).stream()
+                .map(Movie::getTitle)
+                .toList();
+        assertEquals(List.of("Ronin"), secondPage);
+    }
+
+    @Test
+    void streamsInIdOrderAndFiltersByUpdateTime() {
+        try (Stream<Movie> movies = movieRepository.streamAll()) {
+            // Movies with two genres come back once, with both genres fetched
+            List<Movie> all = movies.toList();
+            List<Long> ids = all.stream().map(Movie::getId).toList();
+            assertEquals(25, ids.size());
+            assertEquals(2, all.get(1).getGenres().size());
+            assertEquals(ids.stream().sorted().toList(), ids);
+        }
+        try (Stream<Movie> movies = movieRepository.streamUpdatedSince(Instant.now().plusSeconds(60))) {
+            assertEquals(0, movies.count());
+        }
+    }
+
+    @Test
+    void catalogQueriesLeaveOutMoviesWhoseUploadIsPending() {
+        Movie pending = new Movie();
+        pending.setTitle("Movie Pending");
+        pending.setReleaseDate(LocalDate.of(2005, 6, 1));
+        pending.setRating(new BigDecimal("9.9"));
+        pending.setStatus(MovieStatus.PENDING);
+        Long pendingId = movieRepository.saveAndFlush(pending).getId();
+
+        assertEquals(25, movieRepository.findByStatus(MovieStatus.READY).size());
+        assertEquals(25, pageThrough(MovieSortField.RATING, false, UnaryOperator.identity(), 10).size());
+        assertTrue(movieRepository.findReleasedBetweenRatedAtLeast(LocalDate.of(2000, 1, 1), LocalDate.of(2010, 1, 1),
+                new BigDecimal("5.0"), PageRequest.of(0, 50)).stream().noneMatch(movie -> movie.getId().equals(pendingId)));
+        assertTrue(movieRepository.searchRanked("movie pending", "movie pending%", "%movie pending%", PageRequest.of(0, 10)).isEmpty());
+        try (Stream<Movie> movies = movieRepository.streamAll()) {
+            assertEquals(25, movies.count());
+        }
+        try (Stream<Movie> movies = movieRepository.streamUpdatedSince(Instant.EPOCH)) {
+            assertEquals(25, movies.count());
+        }
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args));
+    }
+
+    private Genre genre(String name) {
+        Genre genre = new Genre();
+        genre.setName(name);
+        return genreRepository.save(genre);
+    }
+
+    private void save(String title, String description) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setDescription(description);
+        movieRepository.save(movie);
+    }
+
+    private List<Movie> pageThrough(MovieSortField field, boolean ascending,
+                                    UnaryOperator<MovieKeysetQuery.MovieKeysetQueryBuilder> filters, int size) {
+        List<Movie> seen = new ArrayList<>();
+        Movie last = null;
+        while (true) {
+            MovieKeysetQuery.MovieKeysetQueryBuilder query = filters.apply(MovieKeysetQuery.builder()
+                    .sortField(field).ascending(ascending).limit(size));
+            if (last != null) {
+                query.afterId(last.getId()).afterValue(field == MovieSortField.RATING
+                        ? last.getRating()
+                        : last.getTitle());
+            }
+            List<Movie> page = movieRepository.findPage(query.build());
+            if (page.isEmpty()) {
+                return seen;
+            }
+            seen.addAll(page);
+            last = page.get(page.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.example.movices.search;
+
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MovieSearchIndexTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private MovieSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        when(movieRepository.findByStatus(MovieStatus.READY)).thenReturn(List.of(
+                movie(1L, "The Matrix", "A hacker learns the truth about reality", "Wachowski", "Sci-Fi"),
+                movie(2L, "Matrix Reloaded", "Neo returns", "Wachowski", "Sci-Fi"),
+                movie(3L, "Inception", "A thief steals secrets through dreams, a matrix of the mind", "Nolan", "Sci-Fi"),
+                movie(4L, "Amélie", "A shy waitress in Paris", "Jeunet", "Comedy")));
+        index = new MovieSearchIndex(movieRepository, Mappers.getMapper(MovieMapper.class));
+        index.rebuild();
+    }
+
+    @Test
+    void ranksTitleMatchesAboveDescriptionMatches() {
+        assertEquals(List.of(1L, 3L), ids(index.searchRelevant("the matrix", 2)));
+
+        List<Long> ids = ids(index.searchRelevant("matrix", 10));
+        assertEquals(3, ids.size());
+        assertEquals(3L, ids.get(2));
+    }
+
+    @Test
+    void matchesPrefixesAndIgnoresAccents() {
+        assertEquals(List.of(4L), ids(index.search("ameli", 10)));
+        assertEquals(List.of(3L), ids(index.searchTitle("incep", 10)));
+    }
+
+    @Test
+    void appliesIncrementalUpdates() {
+        index.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie(2L, "Matrix Reloaded", null, null, null)));
+        index.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.UPDATED, movie(3L, "Dreamscape", null, "Nolan", "Sci-Fi")));
+
+        assertEquals(List.of(1L), ids(index.search("matrix", 10)));
+        assertTrue(index.search("reloaded", 10).isEmpty());
+        assertEquals(List.of(3L), ids(index.searchTitle("dreamscape", 10)));
+    }
+
+    @Test
+    void keepsChangesMadeWhileARebuildReads() {
+        // Land after the movies were read but before the rebuild swaps them in; searches are not blocked meanwhile
+        when(movieRepository.findByStatus(MovieStatus.READY)).thenAnswer(invocation -> {
+            index.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie(2L, "Matrix Reloaded", null, null, null)));
+            assertEquals(List.of(1L, 3L), ids(index.search("matrix", 10)));
+            return List.of(movie(1L, "The Matrix", null, "Wachowski", "Sci-Fi"), movie(2L, "Matrix Reloaded", null, "Wachowski", "Sci-Fi"));
+        });
+        index.rebuild();
+
+        assertEquals(List.of(1L), ids(index.search("matrix", 10)));
+    }
+
+    private List<Long> ids(List<MovieResponse> results) {
+        return results.stream().map(MovieResponse::getId).toList();
+    }
+
+    private Movie movie(Long id, String title, String description, String director, String genre) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setDescription(description);
+        movie.setDirector(director);
+        Genre value = new Genre();
+        value.setName(genre);
+        movie.setGenres(Set.of(value));
+        return movie;
+    }
+}
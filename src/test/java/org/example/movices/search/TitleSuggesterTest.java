@@ -0,0 +1,108 @@
+package org.example.movices.search;
+
+import org.example.movices.config.ViewFlushSequence;
+import org.example.movices.dto.response.MovieSuggestion;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.MovieViewsFlushedEvent;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.MovieViewCount;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.MovieViewCountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TitleSuggesterTest {
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+    private final MovieViewCountRepository movieViewCountRepository = mock(MovieViewCountRepository.class);
+    private final ViewFlushSequence viewFlushSequence = mock(ViewFlushSequence.class);
+    private TitleSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        when(movieRepository.findByStatus(MovieStatus.READY)).thenReturn(List.of(
+                movie(1L, "The Dark Knight", "9.0"),
+                movie(2L, "Knight and Day", "6.3"),
+                movie(3L, "Star Wars", "8.6"),
+                movie(4L, "Stardust", "7.6")));
+        // The rebuild's read includes view flushes up to number 5
+        when(viewFlushSequence.read(any())).thenAnswer(invocation ->
+                new ViewFlushSequence.Stamped<>(5, invocation.<Supplier<?>>getArgument(0).get()));
+        suggester = new TitleSuggester(movieRepository, movieViewCountRepository, viewFlushSequence);
+        suggester.rebuild();
+    }
+
+    @Test
+    void matchesWordPrefixesByWeight() {
+        assertEquals(List.of(1L, 2L), ids(suggester.suggest("kni", 10)));
+        assertEquals(List.of(3L), ids(suggester.suggest("star w", 10)));
+        assertEquals(List.of(3L), ids(suggester.suggest("sta", 1)));
+    }
+
+    @Test
+    void toleratesTyposAndPrefersExactPrefixes() {
+        assertEquals(List.of(1L, 2L), ids(suggester.suggest("knigth", 10)));
+        assertEquals(List.of(4L, 3L), ids(suggester.suggest("stard", 10)));
+        assertTrue(suggester.suggest("xyz", 10).isEmpty());
+    }
+
+    @Test
+    void followsChangesAndWeights() {
+        suggester.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie(1L, "The Dark Knight", "9.0")));
+        suggester.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.CREATED, movie(5L, "Knives Out", "7.9")));
+        assertEquals(List.of(5L, 2L), ids(suggester.suggest("kni", 10)));
+
+        suggester.onViewsFlushed(new MovieViewsFlushedEvent(6, LocalDate.now(), Map.of(2L, 50L)));
+        assertEquals(List.of(2L, 5L), ids(suggester.suggest("kni", 10)));
+    }
+
+    @Test
+    void ranksByStoredViewsAndKeepsChangesMadeDuringARebuild() {
+        when(movieViewCountRepository.findAll()).thenReturn(List.of(views(1L, 15), views(2L, 10), views(4L, 3)));
+        // Lands after the movies were read but before the rebuild swaps them in
+        when(movieRepository.findByStatus(MovieStatus.READY)).thenAnswer(invocation -> {
+            suggester.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.CREATED, movie(5L, "Knives Out", "7.9")));
+            suggester.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie(3L, "Star Wars", "8.6")));
+            // Already part of the counts read below, so not added a second time
+            suggester.onViewsFlushed(new MovieViewsFlushedEvent(5, LocalDate.now(), Map.of(2L, 10L)));
+            return List.of(movie(1L, "The Dark Knight", "9.0"), movie(2L, "Knight and Day", "6.3"),
+                    movie(3L, "Star Wars", "8.6"), movie(4L, "Stardust", "7.6"));
+        });
+        suggester.rebuild();
+
+        // Counted twice, Knight and Day's 20 views would put it ahead
+        assertEquals(List.of(1L, 2L, 5L), ids(suggester.suggest("kni", 10)));
+        assertEquals(List.of(4L), ids(suggester.suggest("sta", 10)));
+    }
+
+    private MovieViewCount views(Long id, long count) {
+        MovieViewCount views = new MovieViewCount();
+        views.setMovieId(id);
+        views.setViews(count);
+        return views;
+    }
+
+    private List<Long> ids(List<MovieSuggestion> suggestions) {
+        return suggestions.stream().map(MovieSuggestion::getId).toList();
+    }
+
+    private Movie movie(Long id, String title, String rating) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setRating(rating == null ? null : new BigDecimal(rating));
+        return movie;
+    }
+}
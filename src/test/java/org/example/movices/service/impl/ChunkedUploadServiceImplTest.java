@@ -0,0 +1,155 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.request.UploadSessionRequest;
+import org.example.movices.dto.response.UploadSessionResponse;
+import org.example.movices.exception.BadRequestException;
+import org.example.movices.exception.PayloadTooLargeException;
+import org.example.movices.model.entity.UploadSession;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.UploadSessionRepository;
+import org.example.movices.service.UploadJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ChunkedUploadServiceImplTest {
+
+    @TempDir
+    private Path stagingDir;
+
+    private final UploadJobService uploadJobService = mock(UploadJobService.class);
+    // upload_sessions rows by id
+    private final Map<String, UploadSession> stored = new ConcurrentHashMap<>();
+    private ChunkedUploadServiceImpl uploads;
+
+    @BeforeEach
+    void setUp() {
+        uploads = newService();
+    }
+
+    private ChunkedUploadServiceImpl newService() {
+        UploadSessionRepository repository = mock(UploadSessionRepository.class);
+        when(repository.save(any())).thenAnswer(invocation -> {
+            UploadSession session = invocation.getArgument(0);
+            stored.put(session.getId(), session);
+            return session;
+        });
+        when(repository.findAll()).thenAnswer(invocation -> new ArrayList<>(stored.values()));
+        doAnswer(invocation -> stored.remove(invocation.<String>getArgument(0))).when(repository).deleteById(any());
+
+        ChunkedUploadServiceImpl service = new ChunkedUploadServiceImpl(uploadJobService,
+                mock(MovieRepository.class), repository, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "stagingDir", stagingDir.toString());
+        ReflectionTestUtils.setField(service, "maxVideoBytes", 1000L);
+        ReflectionTestUtils.setField(service, "sessionTtl", Duration.ofHours(1));
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() {
+        uploads.closeSessions();
+    }
+
+    @Test
+    void mergesOutOfOrderChunksIntoTheContiguousOffset() {
+        String id = uploads.createSession(request(20)).getId();
+
+        assertEquals(0, write(id, 5, "56789").getOffset());
+        assertEquals(10, write(id, 0, "01234").getOffset());
+        // A gap keeps the offset where it is until it is filled
+        assertEquals(10, write(id, 14, "efghij").getOffset());
+        assertEquals(12, write(id, 8, "89ab").getOffset());
+        UploadSessionResponse complete = write(id, 12, "cd");
+        assertEquals(20, complete.getOffset());
+        assertTrue(complete.isComplete());
+    }
+
+    @Test
+    void rejectsOffsetsOutsideTheUploadAndChunksPastItsEnd() {
+        String id = uploads.createSession(request(10)).getId();
+
+        assertThrows(BadRequestException.class, () -> write(id, -1, "0"));
+        assertThrows(BadRequestException.class, () -> write(id, 10, "0"));
+        assertThrows(PayloadTooLargeException.class, () -> write(id, 8, "890"));
+        // Without a declared length the overflow is caught while copying
+        assertThrows(PayloadTooLargeException.class,
+                () -> uploads.writeChunk(id, 8, new ByteArrayInputStream("890".getBytes()), -1));
+        assertEquals(0, uploads.getSession(id).getOffset());
+    }
+
+    @Test
+    void resumesSessionsAfterARestart() throws Exception {
+        String id = uploads.createSession(request(10)).getId();
+        write(id, 0, "0123");
+        write(id, 6, "6789");
+        uploads.closeSessions();
+
+        ChunkedUploadServiceImpl restarted = newService();
+        restarted.restoreSessions();
+        assertEquals(4, restarted.getSession(id).getOffset());
+        byte[] rest = "45".getBytes();
+        assertTrue(restarted.writeChunk(id, 4, new ByteArrayInputStream(rest), rest.length).isComplete());
+        assertEquals("0123456789", Files.readString(stagingDir.resolve(id + ".upload")));
+
+        restarted.finalizeUpload(id);
+        verify(uploadJobService).submit(argThat(movie -> movie.getTitle().equals("Alien")), any(), eq("alien.mp4"));
+        assertTrue(stored.isEmpty());
+    }
+
+    @Test
+    void rejectsUploadsOverTheSizeLimit() {
+        assertThrows(PayloadTooLargeException.class, () -> uploads.createSession(request(1001)));
+    }
+
+    @Test
+    void sweepsStagedFilesNoSessionOwnsAnyMore() throws Exception {
+        String live = uploads.createSession(request(10)).getId();
+        Path liveFile = stagingDir.resolve(live + ".upload");
+        Path orphan = Files.write(stagingDir.resolve("4f2c0b1e-left-by-last-run.upload"), new byte[10]);
+        Path jobFile = Files.write(stagingDir.resolve("job-1234.upload"), new byte[10]);
+        Path recent = Files.write(stagingDir.resolve("just-created.upload"), new byte[10]);
+        FileTime old = FileTime.from(Instant.now().minus(Duration.ofHours(2)));
+        for (Path file : new Path[]{liveFile, orphan, jobFile}) {
+            Files.setLastModifiedTime(file, old);
+        }
+
+        uploads.purgeAbandonedSessions();
+
+        assertFalse(Files.exists(orphan));
+        assertTrue(Files.exists(jobFile));
+        assertTrue(Files.exists(recent));
+        // Old by its file time, but the session itself was active within the TTL
+        assertTrue(Files.exists(liveFile));
+    }
+
+    private UploadSessionResponse write(String id, long offset, String chunk) {
+        byte[] bytes = chunk.getBytes();
+        return uploads.writeChunk(id, offset, new ByteArrayInputStream(bytes), bytes.length);
+    }
+
+    private UploadSessionRequest request(long length) {
+        UploadSessionRequest request = new UploadSessionRequest();
+        request.setTitle("Alien");
+        request.setContentType("video/mp4");
+        request.setFileName("alien.mp4");
+        request.setLength(length);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.movices.service.impl;
+
+import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.repository.MediaBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class FileSystemMediaStorageServiceTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final MediaBlobRepository mediaBlobRepository = Mockito.mock(MediaBlobRepository.class);
+    private final FileSystemMediaStorageService storage = new FileSystemMediaStorageService(mediaBlobRepository);
+    private Path secret;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Path uploads = Files.createDirectories(tempDir.resolve("uploads"));
+        ReflectionTestUtils.setField(storage, "uploadDir", uploads.toString());
+        Files.writeString(uploads.resolve("legacy.mp4"), "legacy");
+        secret = Files.writeString(tempDir.resolve("secret.txt"), "do not serve");
+    }
+
+    @Test
+    void resolvesLegacyKeysBelowTheUploadDirectory() {
+        assertTrue(storage.exists("legacy.mp4"));
+        assertTrue(storage.load("legacy.mp4").exists());
+    }
+
+    @Test
+    void treatsKeysOutsideTheUploadDirectoryAsMissing() {
+        for (String key : new String[]{"../secret.txt", "sub/../../secret.txt", secret.toString(), ".", ""}) {
+            assertFalse(storage.exists(key), key);
+            assertThrows(ResourceNotFoundException.class, () -> storage.load(key), key);
+            assertThrows(ResourceNotFoundException.class, () -> storage.retain(key), key);
+            assertFalse(storage.release(key), key);
+        }
+        assertTrue(Files.exists(secret));
+        verify(mediaBlobRepository, never()).incrementRefCount(anyString());
+        verify(mediaBlobRepository, never()).decrementRefCount(anyString());
+    }
+}
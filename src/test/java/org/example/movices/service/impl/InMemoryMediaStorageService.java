@@ -0,0 +1,107 @@
+package org.example.movices.service.impl;
+
+import org.example.movices.exception.PayloadTooLargeException;
+import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.service.MediaStorageService;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heap-backed variant of the content-addressed store for tests. Its resources are not file-backed,
+ * so it cannot serve streams and is not available as a runtime backend.
+ */
+public class InMemoryMediaStorageService implements MediaStorageService {
+
+    private final Map<String, Blob> blobs = new ConcurrentHashMap<>();
+
+    @Override
+    public StoredMedia store(InputStream content, String extension, long maxBytes) {
+        try {
+            // One byte past the limit is enough to detect oversize content
+            int limit = maxBytes < Integer.MAX_VALUE - 8 ? (int) maxBytes + 1 : Integer.MAX_VALUE - 8;
+            byte[] data = content.readNBytes(limit);
+            if (data.length > maxBytes) {
+                throw new PayloadTooLargeException("Upload exceeds the maximum size of " + maxBytes + " bytes");
+            }
+            return put(data, extension);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store media: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public StoredMedia store(Path file, String extension) {
+        try {
+            StoredMedia stored = put(Files.readAllBytes(file), extension);
+            Files.delete(file);
+            return stored;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store media: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void retain(String key) {
+        if (blobs.computeIfPresent(key, (k, blob) -> blob.withRefCount(blob.refCount() + 1)) == null) {
+            throw new ResourceNotFoundException("Media not found: " + key);
+        }
+    }
+
+    @Override
+    public boolean release(String key) {
+        if (key == null || !blobs.containsKey(key)) {
+            return false;
+        }
+        // Returning null from the remapping function removes the entry
+        return blobs.computeIfPresent(key, (k, blob) -> blob.refCount() <= 1 ? null : blob.withRefCount(blob.refCount() - 1)) == null;
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return key != null && blobs.containsKey(key);
+    }
+
+    @Override
+    public Resource load(String key) {
+        Blob blob = blobs.get(key);
+        if (blob == null) {
+            throw new ResourceNotFoundException("Media file not found on server");
+        }
+        return new ByteArrayResource(blob.data(), key);
+    }
+
+    private StoredMedia put(byte[] data, String extension) {
+        String sha256 = HexFormat.of().formatHex(sha256().digest(data));
+        String key = extension == null || extension.isEmpty() ? sha256 : sha256 + "." + extension;
+        boolean[] deduplicated = new boolean[1];
+        blobs.compute(key, (k, blob) -> {
+            deduplicated[0] = blob != null;
+            return blob == null ? new Blob(data, 1) : blob.withRefCount(blob.refCount() + 1);
+        });
+        return new StoredMedia(key, sha256, data.length, deduplicated[0]);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record Blob(byte[] data, int refCount) {
+        private Blob withRefCount(int refCount) {
+            return new Blob(data, refCount);
+        }
+    }
+}
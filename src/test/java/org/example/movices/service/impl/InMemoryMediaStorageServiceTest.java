@@ -0,0 +1,39 @@
+package org.example.movices.service.impl;
+
+import org.example.movices.exception.PayloadTooLargeException;
+import org.example.movices.service.MediaStorageService.StoredMedia;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryMediaStorageServiceTest {
+
+    private final InMemoryMediaStorageService storage = new InMemoryMediaStorageService();
+
+    @Test
+    void identicalContentIsStoredOnceAndReleasedWithLastReference() {
+        StoredMedia first = storage.store(stream("trailer"), "mp4", 1024);
+        StoredMedia second = storage.store(stream("trailer"), "mp4", 1024);
+
+        assertEquals(first.key(), second.key());
+        assertFalse(first.deduplicated());
+        assertTrue(second.deduplicated());
+
+        assertFalse(storage.release(first.key()));
+        assertTrue(storage.exists(first.key()));
+        assertTrue(storage.release(first.key()));
+        assertFalse(storage.exists(first.key()));
+    }
+
+    @Test
+    void rejectsContentOverTheLimit() {
+        assertThrows(PayloadTooLargeException.class, () -> storage.store(stream("too long"), "mp4", 3));
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
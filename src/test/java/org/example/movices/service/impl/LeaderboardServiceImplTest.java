@@ -0,0 +1,136 @@
+package org.example.movices.service.impl;
+
+import org.example.movices.config.ViewFlushSequence;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.PopularMovieResponse;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.MovieViewsFlushedEvent;
+import org.example.movices.mapper.MovieMapper;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.MovieDailyViews;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieDailyViewsRepository;
+import org.example.movices.repository.MovieRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LeaderboardServiceImplTest {
+
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private LeaderboardServiceImpl leaderboards;
+
+    private final MovieRepository movieRepository = mock(MovieRepository.class);
+
+    @BeforeEach
+    void setUp() {
+        when(movieRepository.findByStatus(MovieStatus.READY)).thenReturn(List.of(
+                movie(1L, "Heat", "8.3", "Crime", "Drama"),
+                movie(2L, "Alien", "8.5", "Horror"),
+                movie(3L, "Ronin", "7.2", "Crime"),
+                movie(4L, "Untitled", null, "Drama")));
+        MovieDailyViewsRepository dailyViewsRepository = mock(MovieDailyViewsRepository.class);
+        when(dailyViewsRepository.findByDayGreaterThanEqual(any())).thenReturn(List.of(
+                dailyViews(3L, today.minusDays(6), 40),
+                dailyViews(1L, today.minusDays(1), 25),
+                dailyViews(1L, today, 5)));
+        // The rebuild's read includes view flushes up to number 5
+        ViewFlushSequence viewFlushSequence = mock(ViewFlushSequence.class);
+        when(viewFlushSequence.read(any())).thenAnswer(invocation ->
+                new ViewFlushSequence.Stamped<>(5, invocation.<Supplier<?>>getArgument(0).get()));
+        leaderboards = new LeaderboardServiceImpl(movieRepository, dailyViewsRepository, Mappers.getMapper(MovieMapper.class),
+                viewFlushSequence);
+        leaderboards.rebuild();
+    }
+
+    @Test
+    void ranksByRatingOverallAndPerGenre() {
+        assertEquals(List.of(2L, 1L, 3L), ids(leaderboards.topRated(null, 10)));
+        assertEquals(List.of(1L, 3L), ids(leaderboards.topRated("crime", 10)));
+        assertEquals(List.of(2L), ids(leaderboards.topRated(null, 1)));
+        assertEquals(List.of(), ids(leaderboards.topRated("Western", 10)));
+
+        leaderboards.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.UPDATED, movie(3L, "Ronin", "9.1", "Thriller")));
+        leaderboards.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie(2L, "Alien", "8.5", "Horror")));
+        assertEquals(List.of(3L, 1L), ids(leaderboards.topRated(null, 10)));
+        assertEquals(List.of(1L), ids(leaderboards.topRated("Crime", 10)));
+        assertEquals(List.of(3L), ids(leaderboards.topRated("Thriller", 10)));
+    }
+
+    @Test
+    void trendingSumsTheLastWeekOfFlushedViews() {
+        assertEquals(Map.of(3L, 40L, 1L, 30L), views(leaderboards.trending(null, 10)));
+
+        leaderboards.onViewsFlushed(new MovieViewsFlushedEvent(6, today, Map.of(2L, 35L, 1L, 20L)));
+        assertEquals(List.of(1L, 3L, 2L), ids(leaderboards.trending(null, 10).stream().map(PopularMovieResponse::getMovie).toList()));
+        assertEquals(Map.of(1L, 50L, 3L, 40L), views(leaderboards.trending("crime", 10)));
+
+        // Ronin's views fall out of the window at the next UTC midnight
+        leaderboards.rollOver(today.plusDays(1));
+        assertEquals(Map.of(1L, 50L, 2L, 35L), views(leaderboards.trending(null, 10)));
+        leaderboards.onViewsFlushed(new MovieViewsFlushedEvent(7, today.plusDays(8), Map.of(3L, 1L)));
+        assertEquals(Map.of(3L, 1L), views(leaderboards.trending(null, 10)));
+    }
+
+    @Test
+    void keepsChangesAndViewsSeenDuringARebuild() {
+        // Land after the tables were read but before the rebuild swaps the boards in
+        when(movieRepository.findByStatus(MovieStatus.READY)).thenAnswer(invocation -> {
+            leaderboards.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.CREATED, movie(5L, "Sicario", "9.0", "Crime")));
+            leaderboards.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, movie(2L, "Alien", "8.5", "Horror")));
+            // Heat's 5 views today are part of the rows read below; Sicario's flush comes after the read
+            leaderboards.onViewsFlushed(new MovieViewsFlushedEvent(5, today, Map.of(1L, 5L)));
+            leaderboards.onViewsFlushed(new MovieViewsFlushedEvent(6, today, Map.of(5L, 60L)));
+            return List.of(movie(1L, "Heat", "8.3", "Crime", "Drama"), movie(2L, "Alien", "8.5", "Horror"),
+                    movie(3L, "Ronin", "7.2", "Crime"));
+        });
+        leaderboards.rebuild();
+
+        assertEquals(List.of(5L, 1L, 3L), ids(leaderboards.topRated(null, 10)));
+        assertEquals(Map.of(5L, 60L, 3L, 40L, 1L, 30L), views(leaderboards.trending(null, 10)));
+    }
+
+    private List<Long> ids(List<MovieResponse> responses) {
+        return responses.stream().map(MovieResponse::getId).toList();
+    }
+
+    private Map<Long, Long> views(List<PopularMovieResponse> entries) {
+        return entries.stream().collect(Collectors.toMap(entry -> entry.getMovie().getId(), PopularMovieResponse::getViews));
+    }
+
+    private MovieDailyViews dailyViews(Long movieId, LocalDate day, long views) {
+        MovieDailyViews row = new MovieDailyViews();
+        row.setMovieId(movieId);
+        row.setDay(day);
+        row.setViews(views);
+        return row;
+    }
+
+    private Movie movie(Long id, String title, String rating, String... genres) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setRating(rating == null ? null : new BigDecimal(rating));
+        movie.setGenres(Arrays.stream(genres).map(name -> {
+            Genre genre = new Genre();
+            genre.setName(name);
+            return genre;
+        }).collect(Collectors.toSet()));
+        return movie;
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.service.impl.MediaStreamingServiceImpl.ByteRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MediaStreamingServiceImplTest {
+
+    private static final String CONTENT = "0123456789abcdefghij";
+
+    private final MediaStreamingServiceImpl streaming = new MediaStreamingServiceImpl(new SimpleMeterRegistry());
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    void servesASingleRange() throws Exception {
+        MockHttpServletResponse response = stream("bytes=5-9");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 5-9/20", response.getHeader("Content-Range"));
+        assertEquals("56789", response.getContentAsString());
+    }
+
+    @Test
+    void servesASuffixRangeAndClampsOpenEnds() throws Exception {
+        MockHttpServletResponse suffix = stream("bytes=-4");
+        assertEquals("bytes 16-19/20", suffix.getHeader("Content-Range"));
+        assertEquals("ghij", suffix.getContentAsString());
+
+        MockHttpServletResponse open = stream("bytes=18-100");
+        assertEquals("bytes 18-19/20", open.getHeader("Content-Range"));
+        assertEquals("ij", open.getContentAsString());
+    }
+
+    @Test
+    void servesMultipleRangesAsMultipart() throws Exception {
+        MockHttpServletResponse response = stream("bytes=0-1,10-11");
+        assertEquals(206, response.getStatus());
+        assertTrue(response.getContentType().startsWith("multipart/byteranges; boundary="));
+        String body = response.getContentAsString();
+        assertTrue(body.contains("Content-Range: bytes 0-1/20\r\n\r\n01"));
+        assertTrue(body.contains("Content-Range: bytes 10-11/20\r\n\r\nab"));
+        assertEquals(body.length(), response.getContentLengthLong());
+    }
+
+    @Test
+    void dropsUnsatisfiableRangesAndAnswers416OnlyWhenNoneRemain() throws Exception {
+        MockHttpServletResponse partly = stream("bytes=50-60,2-3");
+        assertEquals(206, partly.getStatus());
+        assertEquals("bytes 2-3/20", partly.getHeader("Content-Range"));
+
+        MockHttpServletResponse none = stream("bytes=20-,50-60");
+        assertEquals(416, none.getStatus());
+        assertEquals("bytes */20", none.getHeader("Content-Range"));
+    }
+
+    @Test
+    void ignoresMalformedRanges() throws Exception {
+        for (String range : new String[]{"bytes=9-2", "items=0-5", "bytes=abc", "bytes="}) {
+            MockHttpServletResponse response = stream(range);
+            assertEquals(200, response.getStatus(), range);
+            assertNull(response.getHeader("Content-Range"), range);
+            assertEquals(CONTENT, response.getContentAsString(), range);
+        }
+    }
+
+    @Test
+    void rejectsWellFormedRangesBeyondTheEnd() throws Exception {
+        MockHttpServletResponse response = stream("bytes=" + CONTENT.length() + "-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */" + CONTENT.length(), response.getHeader("Content-Range"));
+        assertEquals(416, stream("bytes=100-200,-0").getStatus());
+    }
+
+    @Test
+    void coalescesOverlappingAndAdjacentRanges() {
+        assertEquals(List.of(new ByteRange(0, 19)),
+                MediaStreamingServiceImpl.satisfiableRanges("bytes=0-,0-,0-,0-", 20));
+        assertEquals(List.of(new ByteRange(0, 9), new ByteRange(15, 19)),
+                MediaStreamingServiceImpl.satisfiableRanges("bytes=15-,5-9,0-4,3-6", 20));
+        assertEquals(List.of(), MediaStreamingServiceImpl.satisfiableRanges("bytes=-5", 0));
+    }
+
+    private MockHttpServletResponse stream(String range) throws Exception {
+        Path file = Files.writeString(tempDir.resolve("movie.mp4"), CONTENT, StandardCharsets.US_ASCII);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/movies/1/stream");
+        request.addHeader("Range", range);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        streaming.stream(file, "movie.mp4", false, request, response);
+        return response;
+    }
+}
@@ -0,0 +1,136 @@
+package org.example.movices.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.mapper.MovieMapperImpl;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.service.MovieExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({MovieExportServiceImpl.class, MovieMapperImpl.class, MovieExportServiceImplTest.Config.class})
+class MovieExportServiceImplTest {
+
+    @Autowired
+    private MovieExportService movieExportService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        ObjectMapper objectMapper() {
+            return Jackson2ObjectMapperBuilder.json().build();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Test
+    void ndjsonWritesOneMovieObjectPerLine() throws IOException {
+        save("Heat", MovieStatus.READY);
+        save("Ronin", MovieStatus.READY);
+        save("Collateral", MovieStatus.PENDING);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, movieExportService.export(MovieExportService.Format.NDJSON, null, out));
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        List<String> titles = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            titles.add(objectMapper.readValue(line, MovieResponse.class).getTitle());
+        }
+        assertEquals(List.of("Heat", "Ronin"), titles);
+    }
+
+    @Test
+    void jsonWritesASingleArray() throws IOException {
+        save("Heat", MovieStatus.READY);
+        save("Ronin", MovieStatus.READY);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(2, movieExportService.export(MovieExportService.Format.JSON, null, out));
+
+        List<MovieResponse> movies = objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+        assertEquals(List.of("Heat", "Ronin"), movies.stream().map(MovieResponse::getTitle).toList());
+
+        ByteArrayOutputStream empty = new ByteArrayOutputStream();
+        movieRepository.deleteAll();
+        assertEquals(0, movieExportService.export(MovieExportService.Format.JSON, null, empty));
+        assertEquals("[]", empty.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void sinceLimitsTheExportToRecentlyUpdatedMovies() throws IOException {
+        Long old = save("Heat", MovieStatus.READY);
+        Long recent = save("Ronin", MovieStatus.READY);
+        Long legacy = save("Thief", MovieStatus.READY);
+        updatedAt(old, Instant.parse("2020-01-01T00:00:00Z"));
+        updatedAt(recent, Instant.parse("2024-01-01T00:00:00Z"));
+        // Rows from before updatedAt existed
+        updatedAt(legacy, null);
+
+        assertEquals(List.of("Ronin"), exportedTitles(Instant.parse("2024-01-01T00:00:00Z")));
+        assertEquals(List.of("Ronin"), exportedTitles(Instant.parse("2023-06-01T00:00:00Z")));
+        assertEquals(List.of(), exportedTitles(Instant.parse("2024-01-01T00:00:01Z")));
+        assertEquals(List.of("Heat", "Ronin", "Thief"), exportedTitles(null));
+    }
+
+    private List<String> exportedTitles(Instant since) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        movieExportService.export(MovieExportService.Format.JSON, since, out);
+        List<MovieResponse> movies = objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+        return movies.stream().map(MovieResponse::getTitle).toList();
+    }
+
+    private Long save(String title, MovieStatus status) {
+        Movie movie = new Movie();
+        movie.setTitle(title);
+        movie.setStatus(status);
+        return movieRepository.saveAndFlush(movie).getId();
+    }
+
+    private void updatedAt(Long id, Instant updatedAt) {
+        jdbcTemplate.update("UPDATE movies SET updated_at = ? WHERE id = ?", updatedAt == null ? null : Timestamp.from(updatedAt), id);
+        entityManager.clear();
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.movices.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.config.CatalogVersion;
+import org.example.movices.dto.response.MovieImportResponse;
+import org.example.movices.dto.response.MovieImportResult.Status;
+import org.example.movices.model.entity.Genre;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.service.MovieImportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Import({MovieImportServiceImpl.class, GenreServiceImpl.class, MovieImportServiceImplTest.Config.class})
+@TestPropertySource(properties = "movies.import.batch-size=2")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MovieImportServiceImplTest {
+
+    @Autowired
+    private MovieImportService movieImportService;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        InMemoryMediaStorageService mediaStorageService() {
+            return new InMemoryMediaStorageService();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CatalogVersion catalogVersion() {
+            return new CatalogVersion(new ConcurrentMapCacheManager());
+        }
+    }
+
+    @Test
+    void importsCsvAndNdjsonWithPerRowResults() throws Exception {
+        Movie existing = new Movie();
+        existing.setTitle("Heat");
+        movieRepository.save(existing);
+
+        String csv = "title,director,release_date,rating\n"
+                + "Alien,Scott,1979-05-25,8.5\n"
+                + "\"Crouching Tiger, Hidden Dragon\",Lee,2000-07-06,7.9\n"
+                + "Heat,Mann,1995-12-15,8.3\n"
+                + ",Nobody,,\n"
+                + "Alien,Scott,,\n";
+        MovieImportResponse response = movieImportService.importMovies(MovieImportService.Format.CSV, stream(csv));
+
+        assertEquals(5, response.getTotal());
+        assertEquals(2, response.getCreated());
+        assertEquals(2, response.getDuplicates());
+        assertEquals(1, response.getInvalid());
+        assertEquals(Status.CREATED, response.getRows().get(1).getStatus());
+        assertEquals("Crouching Tiger, Hidden Dragon", response.getRows().get(1).getTitle());
+        assertEquals(3, response.getRows().get(1).getLine());
+        assertNotNull(response.getRows().get(1).getId());
+        Movie alien = movieRepository.findByTitle("Alien");
+        assertEquals(LocalDate.of(1979, 5, 25), alien.getReleaseDate());
+        assertEquals(new BigDecimal("8.5"), alien.getRating());
+
+        String ndjson = "{\"title\":\"Arrival\",\"genre\":\"Sci-Fi, Drama\"}\n{\"title\":\"Dune\",\"rating\":\"eleven\"}\n{not json}\n{\"title\":\"Sicario\",\"video\":\"missing.mp4\"}\n"
+                + "{\"title\":\"Ronin\",\"video\":\"../../etc/hostname\"}\n";
+        response = movieImportService.importMovies(MovieImportService.Format.NDJSON, stream(ndjson));
+
+        assertEquals(1, response.getCreated());
+        assertEquals(4, response.getInvalid());
+        assertEquals("Unknown video key: ../../etc/hostname", response.getRows().stream()
+                .filter(row -> "Ronin".equals(row.getTitle())).findFirst().orElseThrow().getMessage());
+        assertEquals(Set.of("Sci-Fi", "Drama"), movieRepository.findByTitle("Arrival").getGenres().stream()
+                .map(Genre::getName)
+                .collect(Collectors.toSet()));
+        assertEquals(4, movieRepository.count());
+    }
+
+    private ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
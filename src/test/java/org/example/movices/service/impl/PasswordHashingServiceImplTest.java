@@ -0,0 +1,110 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.response.ErrorResponse;
+import org.example.movices.exception.GlobalExceptionHandler;
+import org.example.movices.exception.ServiceBusyException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceImplTest {
+
+    @Test
+    void rehashesWhenTheCostDiffersEitherWay() {
+        PasswordHashingServiceImpl service = newService(new BCryptPasswordEncoder(5), 5, 1, 4, Duration.ofSeconds(5));
+        try {
+            assertFalse(service.needsRehash(new BCryptPasswordEncoder(5).encode("secret")));
+            assertTrue(service.needsRehash(new BCryptPasswordEncoder(4).encode("secret")));
+            assertTrue(service.needsRehash(new BCryptPasswordEncoder(6).encode("secret")));
+            assertTrue(service.needsRehash("{noop}secret"));
+            assertFalse(service.needsRehash(null));
+        } finally {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void fullQueueIsRejectedAsBusy() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingServiceImpl service = new PasswordHashingServiceImpl(blockingEncoder(started, release), meterRegistry,
+                10, 1, 1, Duration.ofSeconds(30), 3);
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> service.encode("first"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> service.encode("second"));
+            while (meterRegistry.get("auth.password.hash.queue").gauge().value() < 1) {
+                Thread.sleep(5);
+            }
+
+            ServiceBusyException busy = assertThrows(ServiceBusyException.class, () -> service.encode("third"));
+            assertEquals(3, busy.getRetryAfterSeconds());
+
+            release.countDown();
+            assertEquals("hashed:first", running.get(5, TimeUnit.SECONDS));
+            assertEquals("hashed:second", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void hashWaitingPastTheTimeoutIsRejectedAsBusy() {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHashingServiceImpl service = newService(blockingEncoder(new CountDownLatch(1), release), 10, 1, 4, Duration.ofMillis(50));
+        try {
+            assertThrows(ServiceBusyException.class, () -> service.matches("secret", "hash"));
+        } finally {
+            release.countDown();
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void busyIsAnsweredWith503AndRetryAfter() {
+        ResponseEntity<ErrorResponse> response = new GlobalExceptionHandler()
+                .handleServiceBusy(new ServiceBusyException("Too many authentication requests, please retry shortly", 3));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("3", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals("SERVICE_BUSY", response.getBody().getErrorCode());
+    }
+
+    private static PasswordHashingServiceImpl newService(PasswordEncoder encoder, int strength, int threads, int queueCapacity, Duration timeout) {
+        return new PasswordHashingServiceImpl(encoder, new SimpleMeterRegistry(), strength, threads, queueCapacity, timeout, 3);
+    }
+
+    // Holds every hash on the worker until released
+    private static PasswordEncoder blockingEncoder(CountDownLatch started, CountDownLatch release) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hashed:" + rawPassword;
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return encode(rawPassword).equals(encodedPassword);
+            }
+        };
+    }
+}
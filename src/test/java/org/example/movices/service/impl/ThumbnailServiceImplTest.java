@@ -0,0 +1,107 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.model.entity.enums.ThumbnailVariant;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ThumbnailServiceImplTest {
+
+    @TempDir
+    Path derivatives;
+
+    @Test
+    void generatesEveryVariantWithoutUpscaling() throws Exception {
+        InMemoryMediaStorageService storage = new InMemoryMediaStorageService();
+        ThumbnailServiceImpl thumbnails = new ThumbnailServiceImpl(storage, new SimpleMeterRegistry(),
+                derivatives.toString(), 1, 4, 0.8f, 40_000_000);
+        String key = storage.store(new ByteArrayInputStream(png(1200, 600)), "png", Long.MAX_VALUE).key();
+
+        thumbnails.enqueue(key);
+        awaitSmall(thumbnails, key);
+
+        assertEquals(640, width(thumbnails, key, ThumbnailVariant.LARGE));
+        assertEquals(160, width(thumbnails, key, ThumbnailVariant.SMALL));
+        BufferedImage medium = ImageIO.read(thumbnails.find(key, ThumbnailVariant.MEDIUM).orElseThrow().toFile());
+        assertEquals(160, medium.getHeight());
+
+        thumbnails.shutdown();
+        storage.release(key);
+        thumbnails.purgeOrphanedVariants();
+        assertTrue(thumbnails.find(key, ThumbnailVariant.SMALL).isEmpty());
+    }
+
+    @Test
+    void regeneratesAnIncompleteSetAndLeavesNoPartialFiles() throws Exception {
+        InMemoryMediaStorageService storage = new InMemoryMediaStorageService();
+        ThumbnailServiceImpl thumbnails = new ThumbnailServiceImpl(storage, new SimpleMeterRegistry(),
+                derivatives.toString(), 1, 4, 0.8f, 40_000_000);
+        String key = storage.store(new ByteArrayInputStream(png(800, 400)), "png", Long.MAX_VALUE).key();
+        thumbnails.enqueue(key);
+        awaitSmall(thumbnails, key);
+
+        // As if generation had stopped after the large variant
+        Files.delete(thumbnails.find(key, ThumbnailVariant.SMALL).orElseThrow());
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (thumbnails.find(key, ThumbnailVariant.SMALL).isEmpty() && System.currentTimeMillis() < deadline) {
+            // Ignored while the first run is still finishing up
+            thumbnails.enqueue(key);
+            Thread.sleep(20);
+        }
+        thumbnails.shutdown();
+
+        try (Stream<Path> files = Files.list(derivatives.resolve(key))) {
+            assertEquals(List.of("large.jpg", "medium.jpg", "small.jpg"), files.map(path -> path.getFileName().toString()).sorted().toList());
+        }
+    }
+
+    @Test
+    void skipsImagesDeclaringMorePixelsThanAllowed() throws Exception {
+        InMemoryMediaStorageService storage = new InMemoryMediaStorageService();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ThumbnailServiceImpl thumbnails = new ThumbnailServiceImpl(storage, meterRegistry,
+                derivatives.toString(), 1, 4, 0.8f, 1200 * 600 - 1);
+        String key = storage.store(new ByteArrayInputStream(png(1200, 600)), "png", Long.MAX_VALUE).key();
+
+        thumbnails.enqueue(key);
+        Timer generate = meterRegistry.get("media.thumbnails.generate").timer();
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (generate.count() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        thumbnails.shutdown();
+
+        assertEquals(1, generate.count());
+        assertTrue(thumbnails.find(key, ThumbnailVariant.LARGE).isEmpty());
+    }
+
+    // Variants are written largest first, so the small one appearing means all are done
+    private void awaitSmall(ThumbnailServiceImpl thumbnails, String key) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (thumbnails.find(key, ThumbnailVariant.SMALL).isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private int width(ThumbnailServiceImpl thumbnails, String key, ThumbnailVariant variant) throws Exception {
+        return ImageIO.read(thumbnails.find(key, variant).orElseThrow().toFile()).getWidth();
+    }
+
+    private byte[] png(int width, int height) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB), "png", out);
+        return out.toByteArray();
+    }
+}
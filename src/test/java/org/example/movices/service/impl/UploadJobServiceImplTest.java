@@ -0,0 +1,261 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.dto.request.MovieRequest;
+import org.example.movices.dto.response.MovieResponse;
+import org.example.movices.dto.response.UploadJobResponse;
+import org.example.movices.exception.ResourceNotFoundException;
+import org.example.movices.model.entity.UploadJob;
+import org.example.movices.model.entity.enums.MovieStatus;
+import org.example.movices.model.entity.enums.UploadJobStatus;
+import org.example.movices.repository.UploadJobRepository;
+import org.example.movices.service.MediaStorageService;
+import org.example.movices.service.MovieService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({UploadJobServiceImpl.class, UploadJobServiceImplTest.Config.class})
+@TestPropertySource(properties = {"movies.upload.jobs.poll-ms=3600000", "movies.upload.staging-dir=target/upload-job-staging"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UploadJobServiceImplTest {
+
+    @Autowired
+    private UploadJobServiceImpl uploadJobService;
+
+    @Autowired
+    private UploadJobRepository uploadJobRepository;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private MediaStorageService mediaStorageService;
+
+    @TempDir
+    private Path tempDir;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        MediaStorageService mediaStorageService() {
+            return spy(new InMemoryMediaStorageService());
+        }
+
+        @Bean
+        MovieService movieService() {
+            return mock(MovieService.class);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        reset(movieService, mediaStorageService);
+        AtomicLong ids = new AtomicLong();
+        when(movieService.createPendingMovie(any())).thenAnswer(invocation -> movie(ids.incrementAndGet(), MovieStatus.PENDING));
+        when(movieService.completePendingMovie(anyLong(), anyString(), any(), any()))
+                .thenAnswer(invocation -> movie(invocation.getArgument(0), MovieStatus.READY));
+    }
+
+    @Test
+    void sniffsProbesAndStoresTheVideoInTheBackground() throws Exception {
+        byte[] mp4 = mp4(1000, 90_500);
+        UploadJobResponse accepted = uploadJobService.submit(request("Alien"),
+                new MockMultipartFile("video", "alien.mp4", "application/octet-stream", mp4),
+                new MockMultipartFile("photo", "alien.png", "image/png", png()));
+        assertFalse(accepted.getStatus().isFinished());
+
+        UploadJob job = await(accepted.getId());
+        assertEquals(UploadJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals("video/mp4", job.getContentType());
+        assertEquals(mp4.length, job.getSize());
+        assertEquals(1, job.getAttempts());
+        assertTrue(mediaStorageService.exists(job.getSha256() + ".mp4"));
+        verify(movieService).completePendingMovie(eq(job.getMovieId()), eq(job.getSha256() + ".mp4"), anyString(), eq(91));
+        assertFalse(Files.exists(Path.of(job.getVideoPath())));
+        assertFalse(Files.exists(Path.of(job.getPhotoPath())));
+    }
+
+    @Test
+    void failsForContentThatIsNotVideoAndDropsThePendingMovie() throws Exception {
+        // The client's content type and file name are not trusted
+        Path staged = Files.writeString(tempDir.resolve("notes.mp4"), "just some text, not a movie");
+        UploadJobResponse accepted = uploadJobService.submit(request("Heat"), staged, "notes.mp4");
+        Long movieId = accepted.getMovieId();
+
+        UploadJob job = await(accepted.getId());
+        assertEquals(UploadJobStatus.FAILED, job.getStatus());
+        assertTrue(job.getError().contains("container"));
+        assertNull(job.getMovieId());
+        verify(movieService).discardPendingMovie(movieId);
+        verify(movieService, never()).completePendingMovie(anyLong(), anyString(), any(), any());
+        assertFalse(Files.exists(staged));
+    }
+
+    @Test
+    void picksUpPersistedJobsAndJobsWhoseLeaseExpired() throws Exception {
+        // As left behind by a previous run: one never started, one abandoned mid-way
+        UploadJob queued = persisted(UploadJobStatus.QUEUED, null, Files.write(tempDir.resolve("a.mp4"), mp4(600, 60_000)));
+        UploadJob abandoned = persisted(UploadJobStatus.RUNNING, Instant.now().minusSeconds(60),
+                Files.write(tempDir.resolve("b.mp4"), mp4(600, 120_000)));
+
+        uploadJobService.dispatch();
+
+        assertEquals(UploadJobStatus.SUCCEEDED, await(queued.getId()).getStatus());
+        UploadJob resumed = await(abandoned.getId());
+        assertEquals(UploadJobStatus.SUCCEEDED, resumed.getStatus());
+        assertEquals(2, resumed.getAttempts());
+        verify(movieService).completePendingMovie(eq(queued.getMovieId()), anyString(), isNull(), eq(100));
+        verify(movieService).completePendingMovie(eq(abandoned.getMovieId()), anyString(), isNull(), eq(200));
+    }
+
+    @Test
+    void retriesFromTheStoredMediaAfterCompletingTheMovieFailed() throws Exception {
+        when(movieService.completePendingMovie(anyLong(), anyString(), any(), any()))
+                .thenThrow(new IllegalStateException("Connection reset"))
+                .thenAnswer(invocation -> movie(invocation.getArgument(0), MovieStatus.READY));
+        Path staged = Files.write(tempDir.resolve("c.mp4"), mp4(1000, 30_000));
+        UploadJobResponse accepted = uploadJobService.submit(request("Collateral"), staged, "c.mp4");
+
+        UploadJob retrying = await(accepted.getId(), job -> job.getStatus() == UploadJobStatus.QUEUED && job.getAttempts() == 1);
+        // Stored and recorded on the job; the retry does not store the video again
+        assertTrue(mediaStorageService.exists(retrying.getVideoKey()));
+
+        uploadJobService.dispatch();
+        UploadJob job = await(accepted.getId());
+        assertEquals(UploadJobStatus.SUCCEEDED, job.getStatus());
+        assertEquals(2, job.getAttempts());
+        verify(movieService, times(2)).completePendingMovie(accepted.getMovieId(), job.getSha256() + ".mp4", null, 30);
+        verify(mediaStorageService, times(1)).store(any(Path.class), eq("mp4"));
+        assertFalse(Files.exists(staged));
+        assertTrue(mediaStorageService.exists(job.getVideoKey()));
+    }
+
+    @Test
+    void retriesFromTheStagedFilesWhenStoringTheVideoFailed() throws Exception {
+        doThrow(new RuntimeException("Disk full")).doCallRealMethod()
+                .when(mediaStorageService).store(any(Path.class), eq("mp4"));
+        UploadJobResponse accepted = uploadJobService.submit(request("Manhunter"),
+                new MockMultipartFile("video", "manhunter.mp4", "video/mp4", mp4(1000, 50_000)),
+                new MockMultipartFile("photo", "manhunter.png", "image/png", png()));
+
+        UploadJob retrying = await(accepted.getId(), job -> job.getStatus() == UploadJobStatus.QUEUED && job.getAttempts() == 1);
+        assertNull(retrying.getThumbnailKey());
+        assertTrue(Files.exists(Path.of(retrying.getVideoPath())));
+        assertTrue(Files.exists(Path.of(retrying.getPhotoPath())));
+
+        uploadJobService.dispatch();
+        UploadJob job = await(accepted.getId());
+        assertEquals(UploadJobStatus.SUCCEEDED, job.getStatus());
+        assertTrue(mediaStorageService.exists(job.getVideoKey()));
+        assertTrue(mediaStorageService.exists(job.getThumbnailKey()));
+        assertFalse(Files.exists(Path.of(job.getVideoPath())));
+        verify(movieService).completePendingMovie(accepted.getMovieId(), job.getVideoKey(), job.getThumbnailKey(), 50);
+    }
+
+    @Test
+    void releasesTheStoredMediaWhenTheJobFailsForGood() throws Exception {
+        when(movieService.completePendingMovie(anyLong(), anyString(), any(), any()))
+                .thenThrow(new ResourceNotFoundException("No pending movie"));
+        Path staged = Files.write(tempDir.resolve("d.mp4"), mp4(1000, 40_000));
+        UploadJobResponse accepted = uploadJobService.submit(request("Thief"), staged, "d.mp4");
+
+        UploadJob job = await(accepted.getId());
+        assertEquals(UploadJobStatus.FAILED, job.getStatus());
+        assertNull(job.getVideoKey());
+        assertFalse(mediaStorageService.exists(job.getSha256() + ".mp4"));
+    }
+
+    private UploadJob persisted(UploadJobStatus status, Instant lockedUntil, Path video) {
+        UploadJob job = new UploadJob();
+        job.setMovieId(100 + uploadJobRepository.count());
+        job.setStatus(status);
+        job.setAttempts(status == UploadJobStatus.RUNNING ? 1 : 0);
+        job.setLockedUntil(lockedUntil);
+        job.setVideoPath(video.toString());
+        job.setVideoExtension("mp4");
+        job.setCreatedAt(Instant.now());
+        job.setUpdatedAt(Instant.now());
+        return uploadJobRepository.save(job);
+    }
+
+    private UploadJob await(Long id) throws InterruptedException {
+        return await(id, job -> job.getStatus().isFinished());
+    }
+
+    private UploadJob await(Long id, Predicate<UploadJob> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (System.currentTimeMillis() < deadline) {
+            UploadJob job = uploadJobRepository.findById(id).orElseThrow();
+            if (condition.test(job)) {
+                return job;
+            }
+            Thread.sleep(20);
+        }
+        return fail("Upload job " + id + " did not get there");
+    }
+
+    private MovieRequest request(String title) {
+        MovieRequest request = new MovieRequest();
+        request.setTitle(title);
+        return request;
+    }
+
+    private MovieResponse movie(long id, MovieStatus status) {
+        MovieResponse movie = new MovieResponse();
+        movie.setId(id);
+        movie.setStatus(status);
+        return movie;
+    }
+
+    // ftyp, then a moov holding only an mvhd (version 0), then a little media data
+    private byte[] mp4(int timescale, int duration) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(box("ftyp", ByteBuffer.allocate(12).put(ascii("isom")).putInt(512).put(ascii("isom")).array()));
+        byte[] mvhd = box("mvhd", ByteBuffer.allocate(20).putInt(0).putInt(0).putInt(0).putInt(timescale).putInt(duration).array());
+        out.writeBytes(box("moov", mvhd));
+        out.writeBytes(box("mdat", new byte[64]));
+        return out.toByteArray();
+    }
+
+    private byte[] box(String type, byte[] body) {
+        return ByteBuffer.allocate(8 + body.length).putInt(8 + body.length).put(ascii(type)).put(body).array();
+    }
+
+    private byte[] png() {
+        return new byte[]{(byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0, 0, 0, 0};
+    }
+
+    private byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.movices.service.impl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.movices.config.ViewFlushSequence;
+import org.example.movices.dto.response.ContinueWatchingResponse;
+import org.example.movices.dto.response.PopularMovieResponse;
+import org.example.movices.event.MovieChangedEvent;
+import org.example.movices.event.MovieViewsFlushedEvent;
+import org.example.movices.mapper.MovieMapperImpl;
+import org.example.movices.model.entity.Movie;
+import org.example.movices.repository.MovieRepository;
+import org.example.movices.repository.MovieViewCountRepository;
+import org.example.movices.repository.WatchProgressRepository;
+import org.example.movices.service.MediaStreamingService.ServedRange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@Import({ViewTrackingServiceImpl.class, ViewFlushSequence.class, MovieMapperImpl.class, ViewTrackingServiceImplTest.Config.class})
+@TestPropertySource(properties = {"movies.tracking.flush-ms=3600000", "movies.tracking.batch-size=2", "movies.tracking.max-pending-keys=3"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ViewTrackingServiceImplTest {
+
+    private static final long LENGTH = 1000;
+
+    @Autowired
+    private ViewTrackingServiceImpl tracking;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private MovieViewCountRepository movieViewCountRepository;
+
+    @Autowired
+    private WatchProgressRepository watchProgressRepository;
+
+    @Autowired
+    private ViewFlushSequence viewFlushSequence;
+
+    @Autowired
+    private FlushedEvents flushedEvents;
+
+    @TestConfiguration
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        FlushedEvents flushedEvents() {
+            return new FlushedEvents();
+        }
+    }
+
+    static class FlushedEvents {
+        private final List<MovieViewsFlushedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        void onFlushed(MovieViewsFlushedEvent event) {
+            events.add(event);
+        }
+
+        MovieViewsFlushedEvent last() {
+            return events.get(events.size() - 1);
+        }
+    }
+
+    @Test
+    void coalescesEventsAndFlushesViewsAndPositionsInBatches() throws Exception {
+        List<Long> ids = new ArrayList<>();
+        for (String title : List.of("Alien", "Heat", "Ronin", "Tenet")) {
+            Movie movie = new Movie();
+            movie.setTitle(title);
+            ids.add(movieRepository.save(movie).getId());
+        }
+        Long alien = ids.get(0);
+        Long heat = ids.get(1);
+        Long ronin = ids.get(2);
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Long movieId = i % 4 == 0 ? heat : alien;
+            futures.add(pool.submit(() -> tracking.recordPlayback(null, movieId, range(0))));
+            if (i == 200) {
+                // Flushing while views keep arriving must neither lose nor double count any
+                futures.add(pool.submit(tracking::flush));
+            }
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+
+        tracking.recordPlayback(7L, alien, range(0));
+        tracking.recordPlayback(7L, alien, range(400));
+        tracking.recordPlayback(7L, heat, range(990));
+        tracking.recordPlayback(7L, ronin, range(100));
+        // Past the three pending keys allowed
+        tracking.recordPlayback(8L, alien, range(200));
+        tracking.recordPlayback(9L, ronin, range(300));
+        tracking.flush();
+
+        List<PopularMovieResponse> popular = tracking.popular(10);
+        assertEquals(List.of("Alien", "Heat"), popular.stream().map(entry -> entry.getMovie().getTitle()).toList());
+        assertEquals(301, popular.get(0).getViews());
+        assertEquals(100, popular.get(1).getViews());
+
+        // Heat is past 95% and counts as finished
+        List<ContinueWatchingResponse> watching = tracking.continueWatching(7L, 10);
+        assertEquals(List.of(ronin, alien), watching.stream().map(entry -> entry.getMovie().getId()).toList());
+        assertEquals(400, watching.get(1).getPositionBytes());
+        assertTrue(tracking.continueWatching(8L, 10).isEmpty());
+        assertEquals(2.0, meterRegistry.counter("tracking.events.dropped", "type", "progress", "reason", "overflow").count());
+
+        // Positions are updated in place and idle counters are retired without losing later views
+        tracking.recordPlayback(7L, alien, range(600));
+        tracking.flush();
+        tracking.flush();
+        tracking.recordPlayback(null, alien, range(0));
+        tracking.flush();
+        assertEquals(600, tracking.continueWatching(7L, 10).get(0).getPositionBytes());
+        assertEquals(302, tracking.popular(1).get(0).getViews());
+        assertEquals(402L, jdbcTemplate.queryForObject("SELECT SUM(views) FROM movie_daily_views", Long.class));
+    }
+
+    @Test
+    void numbersFlushesInStepWithWhatARebuildReads() {
+        Movie movie = new Movie();
+        movie.setTitle("Sicario");
+        Movie sicario = movieRepository.save(movie);
+
+        tracking.recordPlayback(null, sicario.getId(), range(0));
+        tracking.flush();
+        long first = flushedEvents.last().sequence();
+        ViewFlushSequence.Stamped<Long> read = viewFlushSequence.read(() -> jdbcTemplate.queryForObject(
+                "SELECT views FROM movie_view_counts WHERE movie_id = ?", Long.class, sicario.getId()));
+        // A rebuild that saw this count skips the replay of flush number `first`
+        assertEquals(first, read.sequence());
+        assertEquals(1L, read.value());
+
+        tracking.recordPlayback(null, sicario.getId(), range(0));
+        tracking.flush();
+        assertEquals(first + 1, flushedEvents.last().sequence());
+        tracking.onMovieChanged(new MovieChangedEvent(MovieChangedEvent.Type.DELETED, sicario));
+    }
+
+    @Test
+    void keepsEntriesWhenTheTransactionCannotBeOpened() {
+        PlatformTransactionManager unreachable = mock(PlatformTransactionManager.class);
+        when(unreachable.getTransaction(any())).thenThrow(new CannotCreateTransactionException("Connection refused"));
+        ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ViewTrackingServiceImpl offline = new ViewTrackingServiceImpl(jdbcTemplate, namedParameterJdbcTemplate,
+                new TransactionTemplate(unreachable), movieViewCountRepository, watchProgressRepository, movieRepository,
+                new MovieMapperImpl(), registry, eventPublisher, viewFlushSequence, 10, 2, 30);
+
+        offline.recordPlayback(7L, 1L, range(0));
+        offline.recordPlayback(null, 1L, range(0));
+        offline.flush();
+        verifyNoInteractions(eventPublisher);
+
+        // Still pending, so the final flush on shutdown counts them as lost instead of dropping them silently
+        offline.shutdown();
+        assertEquals(2.0, registry.counter("tracking.events.dropped", "type", "views", "reason", "shutdown").count());
+        assertEquals(1.0, registry.counter("tracking.events.dropped", "type", "progress", "reason", "shutdown").count());
+    }
+
+    private ServedRange range(long start) {
+        return new ServedRange(start, LENGTH - 1, LENGTH);
+    }
+}